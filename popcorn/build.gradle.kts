@@ -5,6 +5,7 @@ plugins {
     checkstyle
     id("io.papermc.paperweight.userdev") version "1.7.1"
     id("io.github.goooler.shadow") version "8.1.7"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.kokiriglade"
@@ -23,6 +24,15 @@ dependencies {
     paperweight.paperDevBundle("${properties["mcVersion"]}-R0.1-SNAPSHOT")
 }
 
+configurations.jmhImplementation {
+    // the benchmarks bootstrap the server registries, so they need the server on their classpath
+    extendsFrom(configurations.compileOnly.get())
+}
+
+jmh {
+    jmhVersion = "1.37"
+}
+
 java {
     toolchain.languageVersion.set(JavaLanguageVersion.of(21))
 }
@@ -0,0 +1,174 @@
+package dev.kokiriglade.popcorn.inventory.pane;
+
+import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
+import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.server.Bootstrap;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.craftbukkit.CraftRegistry;
+import org.bukkit.craftbukkit.inventory.CraftItemFactory;
+import org.bukkit.craftbukkit.util.CraftMagicNumbers;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Compares resolving a clicked item through the dispatch table of an inventory component against matching the clicked
+ * item stack with the items of a pane by their persistent data container, for a pane that fills a double chest.
+ *
+ * @since 3.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClickDispatchBenchmark {
+
+    /**
+     * The length of the pane and the inventory component
+     */
+    private static final int LENGTH = 9;
+    /**
+     * The height of the pane and the inventory component
+     */
+    private static final int HEIGHT = 6;
+
+    /**
+     * The slot that is clicked, relative to the inventory component
+     */
+    @Param({"0", "26", "53"})
+    private int slot;
+
+    /**
+     * The inventory component the pane is rendered in
+     */
+    private InventoryComponent inventoryComponent;
+    /**
+     * The pane that is clicked in
+     */
+    private StaticPane pane;
+    /**
+     * The item stack that is rendered in the clicked slot
+     */
+    private ItemStack clickedItem;
+
+    /**
+     * Bootstraps the server registries, fills the pane with distinct items and renders it
+     *
+     * @since 3.2.0
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        bootstrap();
+
+        final Plugin plugin = plugin();
+
+        this.inventoryComponent = new InventoryComponent(LENGTH, HEIGHT);
+        this.pane = new StaticPane(LENGTH, HEIGHT);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < LENGTH; x++) {
+                this.pane.addItem(new GuiItem(new ItemStack(Material.STONE, x + y * LENGTH + 1), null, plugin), x, y);
+            }
+        }
+
+        this.inventoryComponent.addPane(this.pane);
+        this.inventoryComponent.display();
+
+        this.clickedItem = this.inventoryComponent.getItem(this.slot % LENGTH, this.slot / LENGTH);
+    }
+
+    /**
+     * Resolves the clicked item through the dispatch table, with the constant time ownership check of the pane
+     *
+     * @return the clicked item
+     * @since 3.2.0
+     */
+    @Benchmark
+    public @Nullable GuiItem dispatchTable() {
+        return this.pane.findClickedItem(this.inventoryComponent, this.slot, this.clickedItem);
+    }
+
+    /**
+     * Resolves the clicked item by reading the persistent data container of the clicked item stack and comparing it
+     * with every item of the pane
+     *
+     * @return the clicked item
+     * @since 3.2.0
+     */
+    @Benchmark
+    public @Nullable GuiItem itemMatching() {
+        return Pane.findMatchingItem(this.pane.getItems(), this.clickedItem);
+    }
+
+    /**
+     * Bootstraps the vanilla registries and installs a server that only provides what item stacks and their item meta
+     * need, so the benchmark can run outside a running server
+     */
+    private static void bootstrap() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        CraftRegistry.setMinecraftRegistry(RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY));
+
+        final Logger logger = Logger.getLogger("popcorn-benchmark");
+
+        Bukkit.setServer((Server) Proxy.newProxyInstance(
+            ClickDispatchBenchmark.class.getClassLoader(),
+            new Class<?>[]{Server.class},
+            (proxy, method, arguments) -> switch (method.getName()) {
+                case "getItemFactory" -> CraftItemFactory.instance();
+                case "getUnsafe" -> CraftMagicNumbers.INSTANCE;
+                case "getLogger" -> logger;
+                case "getName", "getVersion", "getBukkitVersion" -> "popcorn-benchmark";
+                default -> null;
+            }
+        ));
+    }
+
+    /**
+     * Creates a plugin that only provides a name and a logger, which is all gui items need
+     *
+     * @return the plugin
+     */
+    private static @NonNull Plugin plugin() {
+        final Logger logger = Logger.getLogger("popcorn");
+
+        return (Plugin) Proxy.newProxyInstance(
+            ClickDispatchBenchmark.class.getClassLoader(),
+            new Class<?>[]{Plugin.class},
+            (proxy, method, arguments) -> switch (method.getName()) {
+                case "getName" -> "popcorn";
+                case "getLogger" -> logger;
+                default -> null;
+            }
+        );
+    }
+
+}
@@ -0,0 +1,357 @@
+package dev.kokiriglade.popcorn.inventory;
+
+import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * A scheduler running the animation frames of guis. Instead of running a task per gui, all animations share a single
+ * task which runs all frames that are due once per tick. All frames of the same gui within a tick are coalesced into a
+ * single {@link Gui#update()}. The scheduler enforces a time budget per tick, which covers both the frames and the
+ * updates: frames and updates that don't fit in the budget are postponed to the next tick, with the ones that have
+ * been waiting the longest running first.
+ * <p>
+ * Frames are only run while their gui has at least one viewer: once a frame is due for a gui without viewers, its
+ * animation is cancelled, so closed guis aren't kept alive by the scheduler. This class should only be used from the
+ * main thread.
+ * </p>
+ *
+ * @since 3.2.0
+ */
+public final class AnimationScheduler {
+
+    /**
+     * The default time budget per tick
+     */
+    private static final @NonNull Duration DEFAULT_BUDGET = Duration.ofMillis(2);
+
+    /**
+     * The plugin owning the task of this scheduler
+     */
+    private final @NonNull Plugin plugin;
+
+    /**
+     * The time budget per tick in nanoseconds
+     */
+    private final long budget;
+
+    /**
+     * The scheduled animations, ordered by the tick their next frame is due
+     */
+    private final @NonNull PriorityQueue<Animation> animations = new PriorityQueue<>(
+        Comparator.comparingLong((Animation animation) -> animation.nextTick).thenComparingLong(animation -> animation.id)
+    );
+
+    /**
+     * The guis whose frames ran, but which haven't been updated yet, in the order their first frame ran. Guis don't
+     * override equality, so this is an identity set.
+     */
+    private final @NonNull Set<Gui> changedGuis = new LinkedHashSet<>();
+
+    /**
+     * The task running the frames, or null if no animations are scheduled
+     */
+    private @Nullable BukkitTask task;
+
+    /**
+     * The amount of ticks this scheduler has been running for
+     */
+    private long tick;
+
+    /**
+     * The id handed out to the next scheduled animation, used to keep the order of animations due at the same tick
+     */
+    private long nextId;
+
+    /**
+     * Creates a new animation scheduler with a time budget of two milliseconds per tick
+     *
+     * @param plugin the plugin owning the task of this scheduler
+     * @since 3.2.0
+     */
+    public AnimationScheduler(final @NonNull Plugin plugin) {
+        this(plugin, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a new animation scheduler
+     *
+     * @param plugin the plugin owning the task of this scheduler
+     * @param budget the time frames may take per tick
+     * @throws IllegalArgumentException if the budget is not positive
+     * @since 3.2.0
+     */
+    public AnimationScheduler(final @NonNull Plugin plugin, final @NonNull Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+
+        this.plugin = plugin;
+        this.budget = budget.toNanos();
+    }
+
+    /**
+     * Schedules a frame function for the specified gui. The frame function is run every {@code period} ticks, starting
+     * on the next tick, and receives the index of the frame, starting at zero. The frame function should only change
+     * the panes and items of the gui: the gui is updated by the scheduler afterward. The gui should be shown before the
+     * first frame is due, otherwise the animation is cancelled right away.
+     *
+     * @param gui    the gui to animate
+     * @param period the amount of ticks between frames
+     * @param frame  the frame function
+     * @return the scheduled animation
+     * @throws IllegalArgumentException if the period is not positive
+     * @since 3.2.0
+     */
+    public @NonNull Animation schedule(final @NonNull Gui gui, final int period, final @NonNull IntConsumer frame) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+
+        final Animation animation = new Animation(gui, period, frame, this.nextId++, this.tick + 1);
+
+        this.animations.add(animation);
+
+        if (this.task == null) {
+            this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tick, 1L, 1L);
+        }
+
+        return animation;
+    }
+
+    /**
+     * Cancels all animations of the specified gui
+     *
+     * @param gui the gui to cancel the animations of
+     * @since 3.2.0
+     */
+    public void cancel(final @NonNull Gui gui) {
+        for (final Animation animation : this.animations) {
+            if (animation.gui == gui) {
+                animation.cancel();
+            }
+        }
+    }
+
+    /**
+     * Cancels all animations and stops the task of this scheduler
+     *
+     * @since 3.2.0
+     */
+    public void shutdown() {
+        for (final Animation animation : this.animations) {
+            animation.cancelled = true;
+        }
+
+        this.animations.clear();
+        this.changedGuis.clear();
+        stopTask();
+    }
+
+    /**
+     * Gets the amount of animations that are currently scheduled
+     *
+     * @return the amount of animations
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getAnimationCount() {
+        return this.animations.size();
+    }
+
+    /**
+     * Runs all frames that are due and updates the guis that changed, within the time budget
+     *
+     * @since 3.2.0
+     */
+    private void tick() {
+        this.tick++;
+
+        final long start = System.nanoTime();
+        boolean ranFrame = false;
+
+        while (!this.animations.isEmpty()) {
+            final Animation animation = this.animations.peek();
+
+            if (animation.nextTick > this.tick) {
+                break;
+            }
+
+            //always run at least one frame, so the scheduler can't stall on an expensive frame
+            if (ranFrame && System.nanoTime() - start >= this.budget) {
+                break;
+            }
+
+            this.animations.poll();
+
+            if (animation.cancelled) {
+                continue;
+            }
+
+            //drop the animation instead of requeueing it, so the gui can be collected once it's closed
+            if (animation.gui.getViewerCount() == 0) {
+                animation.cancelled = true;
+                continue;
+            }
+
+            animation.nextTick = this.tick + animation.period;
+            this.animations.add(animation);
+
+            try {
+                animation.frame.accept(animation.frameIndex++);
+            } catch (final Throwable throwable) {
+                this.plugin.getSLF4JLogger().error("Exception while running animation frame", throwable);
+            }
+
+            ranFrame = true;
+            this.changedGuis.add(animation.gui);
+        }
+
+        final Iterator<Gui> iterator = this.changedGuis.iterator();
+        boolean updated = false;
+
+        //always update at least one gui, so updates can't be starved by frames
+        while (iterator.hasNext() && (!updated || System.nanoTime() - start < this.budget)) {
+            final Gui gui = iterator.next();
+
+            iterator.remove();
+            gui.update();
+
+            updated = true;
+        }
+
+        if (this.animations.isEmpty() && this.changedGuis.isEmpty()) {
+            stopTask();
+        }
+    }
+
+    /**
+     * Stops the task of this scheduler, if it is running
+     *
+     * @since 3.2.0
+     */
+    private void stopTask() {
+        if (this.task != null) {
+            this.task.cancel();
+            this.task = null;
+        }
+    }
+
+    /**
+     * An animation scheduled via {@link #schedule(Gui, int, IntConsumer)}
+     *
+     * @since 3.2.0
+     */
+    public static final class Animation {
+
+        /**
+         * The animated gui
+         */
+        private final @NonNull Gui gui;
+
+        /**
+         * The amount of ticks between frames
+         */
+        private final int period;
+
+        /**
+         * The frame function
+         */
+        private final @NonNull IntConsumer frame;
+
+        /**
+         * The id of this animation
+         */
+        private final long id;
+
+        /**
+         * The tick the next frame is due
+         */
+        private long nextTick;
+
+        /**
+         * The index of the next frame
+         */
+        private int frameIndex;
+
+        /**
+         * Whether this animation has been cancelled
+         */
+        private boolean cancelled;
+
+        /**
+         * Creates a new animation
+         *
+         * @param gui      the animated gui
+         * @param period   the amount of ticks between frames
+         * @param frame    the frame function
+         * @param id       the id of this animation
+         * @param nextTick the tick the first frame is due
+         * @since 3.2.0
+         */
+        private Animation(final @NonNull Gui gui, final int period, final @NonNull IntConsumer frame, final long id,
+                          final long nextTick) {
+            this.gui = gui;
+            this.period = period;
+            this.frame = frame;
+            this.id = id;
+            this.nextTick = nextTick;
+        }
+
+        /**
+         * Cancels this animation. The frame function won't be run anymore.
+         *
+         * @since 3.2.0
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        /**
+         * Gets whether this animation has been cancelled
+         *
+         * @return true if this animation has been cancelled, false otherwise
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Gets the animated gui
+         *
+         * @return the animated gui
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public @NonNull Gui getGui() {
+            return this.gui;
+        }
+
+        /**
+         * Gets the amount of ticks between frames
+         *
+         * @return the period
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public int getPeriod() {
+            return this.period;
+        }
+
+    }
+
+}
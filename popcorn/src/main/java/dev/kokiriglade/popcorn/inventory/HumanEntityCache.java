@@ -1,12 +1,16 @@
 package dev.kokiriglade.popcorn.inventory;
 
+import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A class for containing players and their inventory state for later use
@@ -22,6 +26,68 @@ public final class HumanEntityCache {
      */
     private final Map<HumanEntity, ItemStack[]> inventories = new HashMap<>();
 
+    /**
+     * A map containing the players and the guis that are currently using their cached inventory. Once no gui is
+     * using the cached inventory anymore, it's restored.
+     */
+    private final Map<HumanEntity, Set<Gui>> holders = new HashMap<>();
+
+    /**
+     * Marks the player's inventory as being used by the specified gui. If the player's inventory isn't in the cache
+     * yet, it is stored in the cache and cleared. Otherwise, the cached inventory is handed off to this gui, without
+     * copying the inventory again. This allows guis sharing this cache to move a player between them, without restoring
+     * their inventory in between.
+     *
+     * @param humanEntity the human entity whose inventory is used
+     * @param gui         the gui using the inventory
+     * @see #release(HumanEntity, Gui)
+     * @since 3.2.0
+     */
+    public void acquire(final @NonNull HumanEntity humanEntity, final @NonNull Gui gui) {
+        if (!contains(humanEntity)) {
+            storeAndClear(humanEntity);
+        }
+
+        holders.computeIfAbsent(humanEntity, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(gui);
+    }
+
+    /**
+     * Marks the player's inventory as no longer being used by the specified gui. If no other gui is using the player's
+     * inventory anymore, the inventory is restored and the cache is cleared. If the specified gui isn't using the
+     * player's inventory, this method does nothing.
+     *
+     * @param humanEntity the human entity whose inventory is no longer used
+     * @param gui         the gui that no longer uses the inventory
+     * @return true if the inventory was restored, false otherwise
+     * @see #acquire(HumanEntity, Gui)
+     * @since 3.2.0
+     */
+    public boolean release(final @NonNull HumanEntity humanEntity, final @NonNull Gui gui) {
+        final Set<Gui> guis = holders.get(humanEntity);
+
+        if (guis == null || !guis.remove(gui) || !guis.isEmpty()) {
+            return false;
+        }
+
+        restoreAndForget(humanEntity);
+
+        return true;
+    }
+
+    /**
+     * Checks whether the specified gui is using the player's inventory.
+     *
+     * @param humanEntity the human entity whose inventory may be used
+     * @param gui         the gui that may use the inventory
+     * @return true if the gui is using the inventory, false otherwise
+     * @since 3.2.0
+     */
+    public boolean isAcquiredBy(final @NonNull HumanEntity humanEntity, final @NonNull Gui gui) {
+        final Set<Gui> guis = holders.get(humanEntity);
+
+        return guis != null && guis.contains(gui);
+    }
+
     /**
      * Stores this player's inventory in the cache. If the player was already stored, their cache will be overwritten.
      * Clears the player's inventory afterward.
@@ -174,6 +240,7 @@ public final class HumanEntityCache {
      */
     public void clearCache(final @NonNull HumanEntity humanEntity) {
         inventories.remove(humanEntity);
+        holders.remove(humanEntity);
     }
 
     /**
@@ -183,6 +250,7 @@ public final class HumanEntityCache {
      */
     private void clearCache() {
         inventories.clear();
+        holders.clear();
     }
 
 }
@@ -0,0 +1,247 @@
+package dev.kokiriglade.popcorn.inventory.gui;
+
+import dev.kokiriglade.popcorn.persistence.UUIDTagType;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A gui item whose appearance depends on the viewer, e.g. to show a viewer's balance or rank. The item is rendered per
+ * viewer by a render function, which receives the viewer and the state of this item. Rendered items are remembered per
+ * viewer: they are only rendered again once the state or the item itself changed, so unchanged viewers reuse their
+ * previous item.
+ * <p>
+ * The inventory itself contains the regular item of this gui item, which is what viewers see if the gui doesn't
+ * support rendering per viewer. Guis that support a shared view send the rendered items to every viewer client-side,
+ * in the same way as overlays, see {@link dev.kokiriglade.popcorn.inventory.gui.type.util.Gui#setOverlay}.
+ * </p>
+ *
+ * @param <S> the type of the state
+ * @since 3.2.0
+ */
+@SuppressWarnings("unused")
+public class DynamicGuiItem<S> extends GuiItem {
+
+    /**
+     * The function rendering the item for a viewer
+     */
+    private final @NonNull BiFunction<? super HumanEntity, ? super S, ? extends @NonNull ItemStack> renderer;
+
+    /**
+     * The state passed to the render function
+     */
+    private S state;
+
+    /**
+     * The version of the state, which is incremented whenever the state changes
+     */
+    private int stateVersion;
+
+    /**
+     * The items rendered for every viewer. Viewers are held weakly, so viewers that left don't have to be removed.
+     */
+    private final @NonNull Map<HumanEntity, Render> renders = new WeakHashMap<>();
+
+    /**
+     * Creates a new dynamic gui item
+     *
+     * @param item     the item shown when the item can't be rendered per viewer
+     * @param state    the initial state
+     * @param renderer the function rendering the item for a viewer, based on the state
+     * @param action   the action called whenever an interaction with this item happens
+     * @param plugin   the owning plugin of this item
+     * @since 3.2.0
+     */
+    public DynamicGuiItem(final @NonNull ItemStack item, final S state,
+                          final @NonNull BiFunction<? super HumanEntity, ? super S, ? extends @NonNull ItemStack> renderer,
+                          final @Nullable Consumer<InventoryClickEvent> action, final @NonNull Plugin plugin) {
+        super(item, action, plugin);
+
+        this.state = state;
+        this.renderer = renderer;
+    }
+
+    /**
+     * Creates a new dynamic gui item
+     *
+     * @param item     the item shown when the item can't be rendered per viewer
+     * @param state    the initial state
+     * @param renderer the function rendering the item for a viewer, based on the state
+     * @param action   the action called whenever an interaction with this item happens
+     * @since 3.2.0
+     */
+    public DynamicGuiItem(final @NonNull ItemStack item, final S state,
+                          final @NonNull BiFunction<? super HumanEntity, ? super S, ? extends @NonNull ItemStack> renderer,
+                          final @Nullable Consumer<InventoryClickEvent> action) {
+        this(item, state, renderer, action, JavaPlugin.getProvidingPlugin(DynamicGuiItem.class));
+    }
+
+    /**
+     * Creates a new dynamic gui item without an action
+     *
+     * @param item     the item shown when the item can't be rendered per viewer
+     * @param state    the initial state
+     * @param renderer the function rendering the item for a viewer, based on the state
+     * @since 3.2.0
+     */
+    public DynamicGuiItem(final @NonNull ItemStack item, final S state,
+                          final @NonNull BiFunction<? super HumanEntity, ? super S, ? extends @NonNull ItemStack> renderer) {
+        this(item, state, renderer, null);
+    }
+
+    /**
+     * Creates a copy of the specified dynamic gui item
+     *
+     * @param guiItem the dynamic gui item to copy
+     * @since 3.2.0
+     */
+    protected DynamicGuiItem(final @NonNull DynamicGuiItem<S> guiItem) {
+        super(guiItem);
+
+        this.state = guiItem.state;
+        this.renderer = guiItem.renderer;
+    }
+
+    /**
+     * Gets the item to show to the specified viewer. The item is only rendered if it hasn't been rendered for this
+     * viewer yet, or if the state or the item changed since. The returned item is shared between calls, so it must not
+     * be modified. Exceptions thrown by the render function are passed on to the caller.
+     *
+     * @param viewer the viewer to render the item for
+     * @return the item to show to the viewer
+     * @since 3.2.0
+     */
+    public @NonNull ItemStack getRenderedItem(final @NonNull HumanEntity viewer) {
+        final Render render = this.renders.get(viewer);
+
+        if (render != null && render.stateVersion == this.stateVersion && render.version == getVersion()) {
+            return render.item;
+        }
+
+        final ItemStack item = this.renderer.apply(viewer, this.state).clone();
+        final ItemMeta meta = item.getItemMeta();
+
+        //tag the item like the regular item, so clicks on it are resolved to this gui item
+        if (meta != null) {
+            meta.getPersistentDataContainer().set(getKey(), UUIDTagType.INSTANCE, getUUID());
+            item.setItemMeta(meta);
+        }
+
+        this.renders.put(viewer, new Render(item, this.stateVersion, getVersion()));
+
+        return item;
+    }
+
+    /**
+     * Sets the state passed to the render function. The item is rendered again for every viewer the next time it's
+     * shown to them.
+     *
+     * @param state the new state
+     * @since 3.2.0
+     */
+    public void setState(final S state) {
+        checkNotShared();
+
+        this.state = state;
+
+        markStateChanged();
+    }
+
+    /**
+     * Gets the state passed to the render function
+     *
+     * @return the state
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public S getState() {
+        return this.state;
+    }
+
+    /**
+     * Marks the state as changed, so the item is rendered again for every viewer the next time it's shown to them.
+     * This is done automatically by {@link #setState(Object)}, but has to be called manually when the state is
+     * modified directly, or when the render function depends on data outside the state.
+     *
+     * @since 3.2.0
+     */
+    public void markStateChanged() {
+        this.stateVersion++;
+    }
+
+    /**
+     * Forgets the item rendered for the specified viewer, so it's rendered again the next time it's shown to them.
+     * This should be used when the data of a single viewer the render function depends on changed.
+     *
+     * @param viewer the viewer to forget the rendered item of
+     * @since 3.2.0
+     */
+    public void forget(final @NonNull HumanEntity viewer) {
+        this.renders.remove(viewer);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The copy shares the render function and the state with this item, but not the rendered items.
+     * </p>
+     *
+     * @return {@inheritDoc}
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    @Override
+    public @NonNull DynamicGuiItem<S> copy() {
+        return new DynamicGuiItem<>(this);
+    }
+
+    /**
+     * An item rendered for a viewer, together with the versions it was rendered for
+     *
+     * @since 3.2.0
+     */
+    private static final class Render {
+
+        /**
+         * The rendered item
+         */
+        private final @NonNull ItemStack item;
+
+        /**
+         * The version of the state the item was rendered for
+         */
+        private final int stateVersion;
+
+        /**
+         * The version of the gui item the item was rendered for
+         */
+        private final int version;
+
+        /**
+         * Creates a new render
+         *
+         * @param item         the rendered item
+         * @param stateVersion the version of the state the item was rendered for
+         * @param version      the version of the gui item the item was rendered for
+         * @since 3.2.0
+         */
+        private Render(final @NonNull ItemStack item, final int stateVersion, final int version) {
+            this.item = item;
+            this.stateVersion = stateVersion;
+            this.version = version;
+        }
+
+    }
+
+}
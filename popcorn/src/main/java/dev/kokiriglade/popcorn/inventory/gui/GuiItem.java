@@ -1,5 +1,7 @@
 package dev.kokiriglade.popcorn.inventory.gui;
 
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiMetrics;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiOperation;
 import dev.kokiriglade.popcorn.persistence.UUIDTagType;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.NamespacedKey;
@@ -70,6 +72,13 @@ public class GuiItem {
      */
     private boolean visible;
 
+    /**
+     * Whether this item is shared by the panes of a template gui and its copies, in which case it must not be modified
+     *
+     * @since 3.2.0
+     */
+    private boolean shared;
+
     /**
      * Internal UUID for keeping track of this item
      *
@@ -77,6 +86,28 @@ public class GuiItem {
      */
     private @NonNull UUID uuid = UUID.randomUUID();
 
+    /**
+     * The version of this item, which is incremented whenever this item is changed
+     *
+     * @since 3.2.0
+     */
+    private int version;
+
+    /**
+     * A copy of the item with the internal UUID applied, which is reused for rendering as long as this item hasn't
+     * changed. This is null if the item hasn't been rendered yet.
+     *
+     * @since 3.2.0
+     */
+    private @Nullable ItemStack renderedItem;
+
+    /**
+     * The version of this item at the moment the rendered item was created
+     *
+     * @since 3.2.0
+     */
+    private int renderedVersion;
+
     /**
      * Creates a new gui item based on the item stack and action
      *
@@ -148,6 +179,24 @@ public class GuiItem {
         applyUUID();
     }
 
+    /**
+     * Creates a new gui item with the same item, action, properties, visibility and internal UUID as the specified gui
+     * item. The underlying item is copied as per {@link ItemStack#clone()}. This is intended for the copy methods of
+     * subclasses.
+     *
+     * @param guiItem the gui item to copy
+     * @since 3.2.0
+     */
+    protected GuiItem(final @NonNull GuiItem guiItem) {
+        this(guiItem.item.clone(), guiItem.action, guiItem.logger, guiItem.keyUUID);
+
+        this.visible = guiItem.visible;
+        this.uuid = guiItem.uuid;
+        this.properties = new ArrayList<>(guiItem.properties);
+
+        applyUUID();
+    }
+
     /**
      * Makes a copy of this gui item and returns it. This makes a deep copy of the gui item. This entails that the
      * underlying item will be copied as per their {@link ItemStack#clone()} and miscellaneous data will be copied in
@@ -188,11 +237,15 @@ public class GuiItem {
             return;
         }
 
+        final GuiMetrics.Timer timer = GuiMetrics.start(GuiOperation.ACTION);
+
         try {
             action.accept(event);
         } catch (final Throwable t) {
             this.logger.log(Level.SEVERE, "Exception while handling click event in inventory '"
                 + PlainTextComponentSerializer.plainText().serialize(event.getView().title()) + "', slot=" + event.getSlot() + ", item=" + item.getType(), t);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -211,6 +264,58 @@ public class GuiItem {
         }
     }
 
+    /**
+     * Gets a copy of the item with the internal UUID applied, as it should be rendered in an inventory. The returned
+     * item is cached and reused until this gui item changes, see {@link #getVersion()}, so it must not be modified. If
+     * the underlying item does not have an item meta, an {@link IllegalArgumentException} will be thrown.
+     *
+     * @return the item to render
+     * @throws IllegalArgumentException if the item can't have an item meta
+     * @since 3.2.0
+     */
+    public @NonNull ItemStack getRenderedItem() {
+        if (this.renderedItem != null && this.renderedVersion == this.version) {
+            return this.renderedItem;
+        }
+
+        final ItemStack renderedItem = this.item.clone();
+        final ItemMeta meta = renderedItem.getItemMeta();
+
+        if (meta == null) {
+            throw new IllegalArgumentException("item must be able to have ItemMeta (it mustn't be AIR)");
+        }
+
+        meta.getPersistentDataContainer().set(this.keyUUID, UUIDTagType.INSTANCE, this.uuid);
+        renderedItem.setItemMeta(meta);
+
+        this.renderedItem = renderedItem;
+        this.renderedVersion = this.version;
+
+        return renderedItem;
+    }
+
+    /**
+     * Marks this item as changed, so the item will be rendered again the next time it's displayed. This is done
+     * automatically by {@link #setItem(ItemStack)}, {@link #setVisible(boolean)} and {@link #setProperties(List)}, but
+     * has to be called manually when the item returned by {@link #getItem()} is modified directly.
+     *
+     * @since 3.2.0
+     */
+    public void markChanged() {
+        this.version++;
+    }
+
+    /**
+     * Gets the version of this item. The version changes every time this item is changed, see {@link #markChanged()}.
+     *
+     * @return the version of this item
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Sets the action to be executed when a human entity clicks on this item.
      *
@@ -218,6 +323,8 @@ public class GuiItem {
      * @since 3.0.0
      */
     public void setAction(final @NonNull Consumer<InventoryClickEvent> action) {
+        checkNotShared();
+
         this.action = action;
     }
 
@@ -239,11 +346,16 @@ public class GuiItem {
      * @since 3.0.0
      */
     public void setProperties(final @NonNull List<Object> properties) {
+        checkNotShared();
+
         this.properties = properties;
+
+        markChanged();
     }
 
     /**
-     * Returns the item
+     * Returns the item. If the returned item is modified, {@link #markChanged()} has to be called for the changes to be
+     * rendered.
      *
      * @return the item that belongs to this gui item
      * @since 3.0.0
@@ -260,7 +372,11 @@ public class GuiItem {
      * @since 3.0.0
      */
     public void setItem(final @NonNull ItemStack item) {
+        checkNotShared();
+
         this.item = item;
+
+        markChanged();
     }
 
     /**
@@ -303,7 +419,51 @@ public class GuiItem {
      * @since 3.0.0
      */
     public void setVisible(final boolean visible) {
+        checkNotShared();
+
         this.visible = visible;
+
+        markChanged();
+    }
+
+    /**
+     * Marks this item as shared by the panes of a template gui and its copies. Shared items can't be modified anymore,
+     * since changes would show up for every copy of the template; a copy has to detach the pane containing the item
+     * instead, see {@link InventoryComponent#detachPane(dev.kokiriglade.popcorn.inventory.pane.Pane)}. Copies of a
+     * shared item are not shared.
+     *
+     * @see dev.kokiriglade.popcorn.inventory.gui.type.util.Gui#markAsTemplate()
+     * @since 3.2.0
+     */
+    public void markAsShared() {
+        this.shared = true;
+    }
+
+    /**
+     * Gets whether this item is shared by the panes of a template gui and its copies
+     *
+     * @return true if this item is shared, false otherwise
+     * @see #markAsShared()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Throws if this item is shared, so it can't be modified
+     *
+     * @throws IllegalStateException if this item is shared
+     * @see #markAsShared()
+     * @since 3.2.0
+     */
+    protected void checkNotShared() {
+        if (this.shared) {
+            throw new IllegalStateException(
+                "This item is shared by a template gui, detach its pane via InventoryComponent#detachPane first"
+            );
+        }
     }
 
 }
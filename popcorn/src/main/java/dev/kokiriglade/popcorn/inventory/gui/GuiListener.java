@@ -1,8 +1,14 @@
 package dev.kokiriglade.popcorn.inventory.gui;
 
+import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiMetrics;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiOperation;
+import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.ContainerPackets;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.ContainerPacketsImpl;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -26,8 +32,6 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -41,14 +45,14 @@ import java.util.logging.Logger;
 public class GuiListener implements Listener {
 
     /**
-     * The owning plugin of this listener.
+     * The container packets used to bundle the packets sent while handling events
      */
-    private final @NonNull Plugin plugin;
+    private static final @NonNull ContainerPackets CONTAINER_PACKETS = new ContainerPacketsImpl();
 
     /**
-     * A collection of all {@link Gui} instances that have at least one viewer.
+     * The owning plugin of this listener.
      */
-    private final @NonNull Set<@NonNull Gui> activeGuiInstances = new HashSet<>();
+    private final @NonNull Plugin plugin;
 
     /**
      * Creates a new listener for all guis for the provided {@code plugin}.
@@ -68,28 +72,51 @@ public class GuiListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onInventoryClick(final @NonNull InventoryClickEvent event) {
-        final Gui gui = getGui(event.getInventory());
+        final Gui gui = getGui(event.getWhoClicked(), event.getView());
 
         if (gui == null) {
             return;
         }
 
-        final InventoryView view = event.getView();
-        final Inventory inventory = view.getInventory(event.getRawSlot());
+        final GuiMetrics.Timer timer = GuiMetrics.start(gui.getClass(), GuiOperation.CLICK);
+        final HumanEntity humanEntity = event.getWhoClicked();
 
-        if (inventory == null) {
-            gui.callOnOutsideClick(event);
-            return;
+        //bundle the packets sent while handling this event, so the client renders the result at once
+        if (humanEntity instanceof Player player) {
+            CONTAINER_PACKETS.beginBatch(player);
         }
 
-        gui.callOnGlobalClick(event);
-        if (inventory.equals(view.getTopInventory())) {
-            gui.callOnTopClick(event);
-        } else {
-            gui.callOnBottomClick(event);
-        }
+        try {
+            final InventoryView view = event.getView();
+            final Inventory inventory = view.getInventory(event.getRawSlot());
+
+            if (inventory == null) {
+                gui.callOnOutsideClick(event);
+                return;
+            }
+
+            gui.callOnGlobalClick(event);
+            if (inventory.equals(view.getTopInventory())) {
+                gui.callOnTopClick(event);
+            } else {
+                gui.callOnBottomClick(event);
+            }
+
+            gui.click(event);
+
+            //the player inventory area only exists client-side, so clicks in it would affect the real items
+            if (gui.hasVirtualPlayerInventoryItems() && !inventory.equals(view.getTopInventory())) {
+                event.setCancelled(true);
+            }
+
+            resendClientSideItems(gui, event.getWhoClicked());
+        } finally {
+            if (humanEntity instanceof Player player) {
+                CONTAINER_PACKETS.endBatch(player);
+            }
 
-        gui.click(event);
+            timer.stop();
+        }
     }
 
     /**
@@ -100,17 +127,18 @@ public class GuiListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public void onEntityPickupItem(final @NonNull EntityPickupItemEvent event) {
-        if (!(event.getEntity() instanceof HumanEntity)) {
+        if (!(event.getEntity() instanceof HumanEntity humanEntity)) {
             return;
         }
 
-        final Gui gui = getGui(((HumanEntity) event.getEntity()).getOpenInventory().getTopInventory());
+        final Gui gui = getGui(humanEntity, humanEntity.getOpenInventory());
 
-        if (gui == null || !gui.isPlayerInventoryUsed()) {
+        //the inventory isn't cached when the player inventory area is only rendered client-side
+        if (gui == null || !gui.isPlayerInventoryUsed() || !gui.getHumanEntityCache().contains(humanEntity)) {
             return;
         }
 
-        final int leftOver = gui.getHumanEntityCache().add((HumanEntity) event.getEntity(), event.getItem().getItemStack());
+        final int leftOver = gui.getHumanEntityCache().add(humanEntity, event.getItem().getItemStack());
 
         if (leftOver == 0) {
             event.getItem().remove();
@@ -133,64 +161,87 @@ public class GuiListener implements Listener {
      */
     @EventHandler
     public void onInventoryDrag(final @NonNull InventoryDragEvent event) {
-        final Gui gui = getGui(event.getInventory());
+        final Gui gui = getGui(event.getWhoClicked(), event.getView());
 
         if (gui == null) {
             return;
         }
 
-        final InventoryView view = event.getView();
-        final Set<@NonNull Integer> inventorySlots = event.getRawSlots();
+        final GuiMetrics.Timer timer = GuiMetrics.start(gui.getClass(), GuiOperation.DRAG);
+        final HumanEntity humanEntity = event.getWhoClicked();
 
-        if (inventorySlots.size() > 1) {
-            boolean top = false, bottom = false;
+        //bundle the packets sent while handling this event, so the client renders the result at once
+        if (humanEntity instanceof Player player) {
+            CONTAINER_PACKETS.beginBatch(player);
+        }
 
-            for (final int inventorySlot : inventorySlots) {
-                final Inventory inventory = view.getInventory(inventorySlot);
+        try {
+            final InventoryView view = event.getView();
+            final Set<@NonNull Integer> inventorySlots = event.getRawSlots();
 
-                if (view.getTopInventory().equals(inventory)) {
-                    top = true;
-                } else if (view.getBottomInventory().equals(inventory)) {
-                    bottom = true;
-                }
+            if (inventorySlots.size() > 1) {
+                boolean top = false, bottom = false;
 
-                if (top && bottom) {
-                    break;
-                }
-            }
+                for (final int inventorySlot : inventorySlots) {
+                    final Inventory inventory = view.getInventory(inventorySlot);
 
-            gui.callOnGlobalDrag(event);
+                    if (view.getTopInventory().equals(inventory)) {
+                        top = true;
+                    } else if (view.getBottomInventory().equals(inventory)) {
+                        bottom = true;
+                    }
 
-            if (top) {
-                gui.callOnTopDrag(event);
-            }
+                    if (top && bottom) {
+                        break;
+                    }
+                }
 
-            if (bottom) {
-                gui.callOnBottomDrag(event);
-            }
-        } else {
-            final int index = inventorySlots.toArray(new Integer[0])[0];
-            final InventoryType.@NonNull SlotType slotType = view.getSlotType(index);
+                gui.callOnGlobalDrag(event);
 
-            final boolean even = event.getType() == DragType.EVEN;
+                resendClientSideItems(gui, event.getWhoClicked());
+
+                if (top) {
+                    gui.callOnTopDrag(event);
+                }
 
-            final ClickType clickType = even ? ClickType.LEFT : ClickType.RIGHT;
-            final InventoryAction inventoryAction = even ? InventoryAction.PLACE_SOME : InventoryAction.PLACE_ONE;
+                if (bottom) {
+                    gui.callOnBottomDrag(event);
 
-            final ItemStack previousViewCursor = view.getCursor();
-            // Overwrite getCursor in inventory click event to mimic real event fired by Bukkit.
-            view.setCursor(event.getOldCursor());
-            //this is a fake click event, firing this may cause other plugins to function incorrectly, so keep it local
-            final InventoryClickEvent inventoryClickEvent = new InventoryClickEvent(view, slotType, index, clickType,
-                inventoryAction);
+                    //the player inventory area only exists client-side, so drags in it would affect the real items
+                    if (gui.hasVirtualPlayerInventoryItems()) {
+                        event.setCancelled(true);
+                    }
+                }
+            } else {
+                final int index = inventorySlots.toArray(new Integer[0])[0];
+                final InventoryType.@NonNull SlotType slotType = view.getSlotType(index);
+
+                final boolean even = event.getType() == DragType.EVEN;
+
+                final ClickType clickType = even ? ClickType.LEFT : ClickType.RIGHT;
+                final InventoryAction inventoryAction = even ? InventoryAction.PLACE_SOME : InventoryAction.PLACE_ONE;
+
+                final ItemStack previousViewCursor = view.getCursor();
+                // Overwrite getCursor in inventory click event to mimic real event fired by Bukkit.
+                view.setCursor(event.getOldCursor());
+                //this is a fake click event, firing this may cause other plugins to function incorrectly, so keep it local
+                final InventoryClickEvent inventoryClickEvent = new InventoryClickEvent(view, slotType, index, clickType,
+                    inventoryAction);
+
+                onInventoryClick(inventoryClickEvent);
+                // Restore previous cursor only if someone has not changed it manually in onInventoryClick.
+                if (Objects.equals(view.getCursor(), event.getOldCursor())) {
+                    view.setCursor(previousViewCursor);
+                }
 
-            onInventoryClick(inventoryClickEvent);
-            // Restore previous cursor only if someone has not changed it manually in onInventoryClick.
-            if (Objects.equals(view.getCursor(), event.getOldCursor())) {
-                view.setCursor(previousViewCursor);
+                event.setCancelled(inventoryClickEvent.isCancelled());
+            }
+        } finally {
+            if (humanEntity instanceof Player player) {
+                CONTAINER_PACKETS.endBatch(player);
             }
 
-            event.setCancelled(inventoryClickEvent.isCancelled());
+            timer.stop();
         }
     }
 
@@ -202,41 +253,81 @@ public class GuiListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onInventoryClose(final @NonNull InventoryCloseEvent event) {
-        final Gui gui = getGui(event.getInventory());
+        final HumanEntity humanEntity = event.getPlayer();
+        final Gui gui = getGui(humanEntity, event.getView());
 
         if (gui == null) {
             return;
         }
 
-        final HumanEntity humanEntity = event.getPlayer();
-        final PlayerInventory playerInventory = humanEntity.getInventory();
+        final GuiMetrics.Timer timer = GuiMetrics.start(gui.getClass(), GuiOperation.CLOSE);
 
-        //due to a client issue off-hand items appear as ghost items, this updates the off-hand correctly client-side
-        playerInventory.setItemInOffHand(playerInventory.getItemInOffHand());
+        try {
+            final PlayerInventory playerInventory = humanEntity.getInventory();
 
-        if (!gui.isUpdating()) {
-            gui.callOnClose(event);
+            //due to a client issue off-hand items appear as ghost items, this updates the off-hand correctly client-side
+            playerInventory.setItemInOffHand(playerInventory.getItemInOffHand());
 
-            event.getInventory().clear(); //clear inventory to prevent items being put back
+            if (!gui.isUpdating()) {
+                gui.callOnClose(event);
 
-            gui.getHumanEntityCache().restoreAndForget(humanEntity);
+                event.getInventory().clear(); //clear inventory to prevent items being put back
 
-            if (gui.getViewerCount() == 1) {
-                activeGuiInstances.remove(gui);
-            }
+                final HumanEntityCache humanEntityCache = gui.getHumanEntityCache();
+                final InventoryCloseEvent.Reason reason = event.getReason();
+                final boolean virtualItems = gui.hasVirtualPlayerInventoryItems();
+
+                GuiRegistry.unregister(humanEntity, gui);
+                gui.handleClose(humanEntity);
+
+                /* when navigating to the parent, hand the cached inventory off to the parent instead of restoring it, the
+                   parent acquires it before this gui releases it. When another gui is opened directly, it has already
+                   acquired the inventory at this point. */
+                final boolean handOff = this.plugin.isEnabled() && gui.getParent() != null
+                    && reason != InventoryCloseEvent.Reason.OPEN_NEW
+                    && reason != InventoryCloseEvent.Reason.DISCONNECT && humanEntityCache.isAcquiredBy(humanEntity, gui);
 
-            //Bukkit doesn't like it if you open an inventory while the previous one is being closed
-            Bukkit.getScheduler().runTask(this.plugin, () -> gui.navigateToParent(humanEntity));
+                if (handOff) {
+                    //hide the items of this gui until the parent places its own
+                    for (int slot = 0; slot < 36; slot++) {
+                        playerInventory.clear(slot);
+                    }
+                } else {
+                    humanEntityCache.release(humanEntity, gui);
+                }
+
+                //Bukkit doesn't like it if you open an inventory while the previous one is being closed
+                Bukkit.getScheduler().runTask(this.plugin, () -> {
+                    try {
+                        gui.navigateToParent(humanEntity);
+                    } finally {
+                        if (handOff) {
+                            humanEntityCache.release(humanEntity, gui);
+                        }
+
+                        /* the client still shows the client-side items of the player inventory area, resend the real
+                           items unless another container was opened, which already sent them */
+                        if (virtualItems && humanEntity instanceof Player player
+                            && player.getOpenInventory().getTopInventory().getType() == InventoryType.CRAFTING) {
+                            player.updateInventory();
+                        }
+                    }
+                });
+            }
+        } finally {
+            timer.stop();
         }
     }
 
     /**
-     * Registers newly opened inventories
+     * Registers newly opened inventories. Guis register their viewers themselves when they are shown, this catches
+     * inventories of guis that were opened directly, without going through the gui. This listens on the monitor
+     * priority, so viewers are only registered once no other plugin can cancel the opening anymore.
      *
      * @param event the event fired
      * @since 3.0.0
      */
-    @EventHandler(ignoreCancelled = true)
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
     public void onInventoryOpen(final @NonNull InventoryOpenEvent event) {
         final Gui gui = getGui(event.getInventory());
 
@@ -244,7 +335,7 @@ public class GuiListener implements Listener {
             return;
         }
 
-        activeGuiInstances.add(gui);
+        GuiRegistry.register(event.getPlayer(), gui);
     }
 
     /**
@@ -259,10 +350,12 @@ public class GuiListener implements Listener {
             return;
         }
 
+        GuiRegistry.pruneStaleViewers(); //viewers whose close event never arrived can't be closed
+
         int counter = 0; //callbacks might open GUIs, eg. in nested menus
         final int maxCount = 10;
-        while (!activeGuiInstances.isEmpty() && counter++ < maxCount) {
-            for (final Gui gui : new ArrayList<>(activeGuiInstances)) {
+        while (GuiRegistry.getViewerCount() > 0 && counter++ < maxCount) {
+            for (final Gui gui : GuiRegistry.getActiveGuis()) {
                 for (final HumanEntity viewer : gui.getViewers()) {
                     viewer.closeInventory();
                 }
@@ -276,10 +369,60 @@ public class GuiListener implements Listener {
                 "Unable to close GUIs on plugin disable: they keep getting opened (tried: " + maxCount + " times)"
             );
         }
+
+        GuiMetrics.shutdown();
+    }
+
+    /**
+     * Resends the client-side items and container properties of the gui to the human entity on the next tick. After a
+     * click, the server resends the contents and the properties of the container, which overwrites the items and
+     * properties that only exist client-side.
+     *
+     * @param gui         the gui the human entity clicked in
+     * @param humanEntity the human entity that clicked
+     * @since 3.2.0
+     */
+    private void resendClientSideItems(final @NonNull Gui gui, final @NonNull HumanEntity humanEntity) {
+        if (!gui.hasClientSideItems()) {
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(this.plugin, () -> {
+            if (GuiRegistry.getGui(humanEntity) == gui) {
+                gui.sendClientSideItems(humanEntity);
+                gui.resendProperties(humanEntity);
+            }
+        });
+    }
+
+    /**
+     * Gets the gui the human entity has open, if the specified view is a view of that gui. A registration whose gui
+     * isn't shown in the view is stale, e.g. because the close event of the gui never arrived, so it's dropped and
+     * the player's inventory is released, instead of handling the events of another inventory as events of the gui.
+     *
+     * @param humanEntity the human entity that caused the event
+     * @param view        the view the event happened in
+     * @return the gui or null if the human entity doesn't have a gui open in the view
+     * @since 3.2.0
+     */
+    private static @Nullable Gui getGui(final @NonNull HumanEntity humanEntity, final @NonNull InventoryView view) {
+        final Gui gui = GuiRegistry.getGui(humanEntity);
+
+        if (gui == null || gui.ownsInventory(view.getTopInventory())) {
+            return gui;
+        }
+
+        if (GuiRegistry.unregister(humanEntity, gui)) {
+            gui.getHumanEntityCache().release(humanEntity, gui);
+            gui.handleClose(humanEntity);
+        }
+
+        return null;
     }
 
     /**
-     * Gets the gui from the inventory or null if the inventory isn't a gui
+     * Gets the gui from the inventory or null if the inventory isn't a gui. This doesn't create a snapshot of the
+     * holder, in case the holder is a block state.
      *
      * @param inventory the inventory to get the gui from
      * @return the gui or null if the inventory doesn't have a gui
@@ -293,7 +436,7 @@ public class GuiListener implements Listener {
             return gui;
         }
 
-        final InventoryHolder holder = inventory.getHolder();
+        final InventoryHolder holder = inventory.getHolder(false);
 
         if (holder instanceof Gui guiInstance) {
             return guiInstance;
@@ -0,0 +1,239 @@
+package dev.kokiriglade.popcorn.inventory.gui;
+
+import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of which {@link Gui} every viewer currently has open. Events are resolved by looking up the viewer that
+ * caused them, so events of players without an open gui are rejected after a single map lookup, without ever asking
+ * an inventory for its holder. Events of registered viewers are only routed to their gui if the gui is shown in the
+ * view of the event, see {@link Gui#ownsInventory(Inventory)}.
+ * <p>
+ * The index is safe to read from any thread, which allows the counts in this class to be polled by metrics and
+ * monitoring code. Registrations themselves happen on the main thread, when guis are shown and closed.
+ * </p>
+ *
+ * @since 3.2.0
+ */
+public final class GuiRegistry {
+
+    /**
+     * The gui each viewer currently has open, keyed by the unique id of the viewer
+     */
+    private static final @NonNull Map<UUID, Registration> VIEWERS = new ConcurrentHashMap<>();
+
+    /**
+     * A map containing the relations between inventories and their respective gui. This is needed because Bukkit and
+     * Spigot ignore inventory holders for beacons, brewing stands, dispensers, droppers, furnaces and hoppers.
+     */
+    private static final @NonNull Map<Inventory, Gui> INVENTORIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * A private constructor to prevent construction.
+     */
+    private GuiRegistry() {
+    }
+
+    /**
+     * Registers the specified gui as the gui currently opened by the viewer, replacing any previous registration of
+     * this viewer.
+     *
+     * @param humanEntity the viewer
+     * @param gui         the gui the viewer opened
+     * @since 3.2.0
+     */
+    public static void register(final @NonNull HumanEntity humanEntity, final @NonNull Gui gui) {
+        VIEWERS.put(humanEntity.getUniqueId(), new Registration(humanEntity, gui));
+    }
+
+    /**
+     * Removes the registration of the viewer, if the viewer is currently registered for the specified gui.
+     *
+     * @param humanEntity the viewer
+     * @param gui         the gui the viewer closed
+     * @return true if a registration was removed, false otherwise
+     * @since 3.2.0
+     */
+    public static boolean unregister(final @NonNull HumanEntity humanEntity, final @NonNull Gui gui) {
+        final UUID uuid = humanEntity.getUniqueId();
+        final Registration registration = VIEWERS.get(uuid);
+
+        return registration != null && registration.gui == gui && VIEWERS.remove(uuid, registration);
+    }
+
+    /**
+     * Gets the gui the viewer currently has open, or null if the viewer has no gui open.
+     *
+     * @param humanEntity the viewer
+     * @return the gui or null
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @Nullable Gui getGui(final @NonNull HumanEntity humanEntity) {
+        final Registration registration = VIEWERS.get(humanEntity.getUniqueId());
+
+        return registration == null ? null : registration.gui;
+    }
+
+    /**
+     * Binds the inventory to the specified gui, so the gui can be found for inventories whose holder can't be set.
+     *
+     * @param inventory the inventory for the specified gui
+     * @param gui       the gui belonging to the specified inventory
+     * @since 3.2.0
+     */
+    public static void bind(final @NonNull Inventory inventory, final @NonNull Gui gui) {
+        INVENTORIES.put(inventory, gui);
+    }
+
+    /**
+     * Gets the gui bound to the specified inventory, or null if no gui is bound to it.
+     *
+     * @param inventory the inventory to get the gui from
+     * @return the gui or null
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @Nullable Gui getGui(final @NonNull Inventory inventory) {
+        return INVENTORIES.get(inventory);
+    }
+
+    /**
+     * Gets the amount of viewers that currently have a gui open.
+     *
+     * @return the amount of viewers
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int getViewerCount() {
+        return VIEWERS.size();
+    }
+
+    /**
+     * Gets the amount of distinct guis that currently have at least one viewer.
+     *
+     * @return the amount of active guis
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int getActiveGuiCount() {
+        return getActiveGuis().size();
+    }
+
+    /**
+     * Gets a snapshot of all guis that currently have at least one viewer.
+     *
+     * @return the active guis
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @NonNull Set<@NonNull Gui> getActiveGuis() {
+        final Set<Gui> guis = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (final Registration registration : VIEWERS.values()) {
+            guis.add(registration.gui);
+        }
+
+        return guis;
+    }
+
+    /**
+     * Gets all viewers that are still registered, but that can no longer be viewing their gui: either because they are
+     * no longer valid (e.g. they left the server) or because they don't have any inventory open anymore. A non-empty
+     * result means that a gui was closed without its close event reaching the {@link GuiListener}. This should only be
+     * called from the main thread.
+     *
+     * @return the stale viewers
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @NonNull List<@NonNull HumanEntity> getStaleViewers() {
+        final List<HumanEntity> staleViewers = new ArrayList<>();
+
+        for (final Registration registration : VIEWERS.values()) {
+            if (isStale(registration.viewer)) {
+                staleViewers.add(registration.viewer);
+            }
+        }
+
+        return staleViewers;
+    }
+
+    /**
+     * Removes the registrations of all viewers returned by {@link #getStaleViewers()}. This should only be called from
+     * the main thread.
+     *
+     * @return the amount of registrations that were removed
+     * @since 3.2.0
+     */
+    public static int pruneStaleViewers() {
+        int removed = 0;
+
+        for (final Map.Entry<UUID, Registration> entry : VIEWERS.entrySet()) {
+            if (isStale(entry.getValue().viewer) && VIEWERS.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Checks whether the viewer can no longer be viewing a gui.
+     *
+     * @param humanEntity the viewer
+     * @return true if the viewer is stale, false otherwise
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private static boolean isStale(final @NonNull HumanEntity humanEntity) {
+        return !humanEntity.isValid() || humanEntity.getOpenInventory().getType() == InventoryType.CRAFTING;
+    }
+
+    /**
+     * A viewer together with the gui they have open.
+     *
+     * @since 3.2.0
+     */
+    private static final class Registration {
+
+        /**
+         * The viewer
+         */
+        private final @NonNull HumanEntity viewer;
+
+        /**
+         * The gui the viewer has open
+         */
+        private final @NonNull Gui gui;
+
+        /**
+         * Creates a new registration
+         *
+         * @param viewer the viewer
+         * @param gui    the gui the viewer has open
+         * @since 3.2.0
+         */
+        private Registration(final @NonNull HumanEntity viewer, final @NonNull Gui gui) {
+            this.viewer = viewer;
+            this.gui = gui;
+        }
+
+    }
+
+}
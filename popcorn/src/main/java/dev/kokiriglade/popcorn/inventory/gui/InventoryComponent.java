@@ -1,7 +1,10 @@
 package dev.kokiriglade.popcorn.inventory.gui;
 
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiMetrics;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiOperation;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
 import dev.kokiriglade.popcorn.inventory.pane.Pane;
+import dev.kokiriglade.popcorn.inventory.pane.PaneIndex;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
@@ -12,7 +15,10 @@ import org.jetbrains.annotations.Contract;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a component within an inventory that can hold items. This is always in the shape of a rectangular grid.
@@ -26,18 +32,59 @@ public class InventoryComponent {
      * A set of all panes in this inventory. This is guaranteed to be sorted in order of the pane's priorities, from the
      * lowest priority to the highest priority. The order of panes with the same priority is unspecified.
      */
-    protected final @NonNull List<@NonNull Pane> panes = new ArrayList<>();
+    protected final @NonNull List<@NonNull Pane> panes;
 
     /**
      * The items this inventory component has, stored in row-major order. Slots that are empty are represented as null.
      */
     private final @Nullable ItemStack @NonNull [] @NonNull [] items;
 
+    /**
+     * The gui items that were rendered into this inventory component, stored in the same order as {@link #items}. This
+     * acts as a dispatch table for clicks, so the clicked item can be resolved without inspecting the item's meta.
+     * Slots that are empty or were filled with a plain item stack are represented as null.
+     */
+    private final @Nullable GuiItem @NonNull [] @NonNull [] guiItems;
+
     /**
      * The length and height of this inventory component
      */
     private final int length, height;
 
+    /**
+     * The amount of items in every row of the backing storage, shared with all row views of the backing storage. This
+     * allows checking whether rows contain items without inspecting every cell.
+     */
+    private final int @NonNull [] rowItemCounts;
+
+    /**
+     * The row of the backing storage that is the first row of this inventory component. This is zero, unless this
+     * inventory component is a row view.
+     */
+    private final int rowOffset;
+
+    /**
+     * The row views created for this inventory component, which are reused when the same rows are requested again
+     */
+    private @Nullable List<InventoryComponent> rowViews;
+
+    /**
+     * The panes of this inventory component that are shared with the template this component was copied from, or null
+     * if this component wasn't copied from a template
+     */
+    private @Nullable Set<Pane> sharedPanes;
+
+    /**
+     * The inventory component owning the panes of this inventory component. This is this component itself, unless this
+     * inventory component is a row view.
+     */
+    private final @NonNull InventoryComponent owner;
+
+    /**
+     * The index of the panes and items of this inventory component, or null if it hasn't been requested yet
+     */
+    private @Nullable PaneIndex index;
+
     /**
      * Creates a new inventory component with the specified length and width. If either the length or the width is less
      * than zero, an {@link IllegalArgumentException} will be thrown.
@@ -55,6 +102,31 @@ public class InventoryComponent {
         this.height = height;
 
         this.items = new ItemStack[length][height];
+        this.guiItems = new GuiItem[length][height];
+        this.rowItemCounts = new int[height];
+        this.rowOffset = 0;
+        this.panes = new ArrayList<>();
+        this.owner = this;
+    }
+
+    /**
+     * Creates a new row view of the specified inventory component
+     *
+     * @param backing the inventory component to create the view of
+     * @param from    the first row of the view, relative to the specified inventory component
+     * @param height  the amount of rows of the view
+     * @since 3.2.0
+     */
+    private InventoryComponent(final @NonNull InventoryComponent backing, final int from, final int height) {
+        this.length = backing.length;
+        this.height = height;
+
+        this.items = backing.items;
+        this.guiItems = backing.guiItems;
+        this.rowItemCounts = backing.rowItemCounts;
+        this.rowOffset = backing.rowOffset + from;
+        this.panes = backing.panes;
+        this.owner = backing.owner;
     }
 
     /**
@@ -64,6 +136,77 @@ public class InventoryComponent {
      * @since 3.0.0
      */
     public void addPane(final @NonNull Pane pane) {
+        insertPane(pane);
+
+        final PaneIndex index = this.owner.index;
+
+        if (index != null) {
+            index.add(pane);
+        }
+    }
+
+    /**
+     * Removes the specified pane from this inventory component. If the pane is not part of this component, this does
+     * nothing.
+     *
+     * @param pane the pane to remove
+     * @since 3.2.0
+     */
+    public void removePane(final @NonNull Pane pane) {
+        for (int i = 0; i < this.panes.size(); i++) {
+            if (this.panes.get(i) != pane) {
+                continue;
+            }
+
+            this.panes.remove(i);
+
+            if (this.owner.sharedPanes != null) {
+                this.owner.sharedPanes.remove(pane);
+            }
+
+            final PaneIndex index = this.owner.index;
+
+            if (index != null) {
+                index.remove(pane);
+            }
+
+            return;
+        }
+    }
+
+    /**
+     * Gets the index of the panes and items of this inventory component, which allows looking up panes and items by
+     * their unique id in constant time. The index is created when it's first requested and kept up-to-date
+     * afterward, as long as panes are added and removed via {@link #addPane(Pane)} and {@link #removePane(Pane)}.
+     *
+     * @return the index
+     * @since 3.2.0
+     */
+    public @NonNull PaneIndex getIndex() {
+        if (this.owner != this) {
+            return this.owner.getIndex();
+        }
+
+        if (this.index == null) {
+            final PaneIndex index = new PaneIndex();
+
+            for (final Pane pane : this.panes) {
+                index.add(pane);
+            }
+
+            this.index = index;
+        }
+
+        return this.index;
+    }
+
+    /**
+     * Inserts a pane into the collection of panes, keeping the collection sorted by priority
+     *
+     * @param pane the pane to insert
+     * @since 3.2.0
+     */
+    private void insertPane(final @NonNull Pane pane) {
         final int size = getPanes().size();
 
         if (size == 0) {
@@ -141,7 +284,8 @@ public class InventoryComponent {
      * slots will be placed from the top-right to the bottom-left, continuing from left-to-right, top-to-bottom plus the
      * specified offset. This ordering is different from the normal ordering of the indices of a
      * {@link PlayerInventory}. See for the normal ordering of a {@link PlayerInventory}'s slots its documentation. In
-     * contrast to {@link #display(PlayerInventory, int)} this does not render the panes of this component.
+     * contrast to {@link #display(PlayerInventory, int)} this does not render the panes of this component. The items
+     * are written to the inventory at once, rather than slot by slot.
      *
      * @param inventory the inventory to place the items in
      * @param offset    the offset from which to start counting the slots
@@ -149,6 +293,8 @@ public class InventoryComponent {
      * @since 3.0.0
      */
     public void placeItems(final @NonNull PlayerInventory inventory, final int offset) {
+        final ItemStack[] contents = inventory.getStorageContents();
+
         for (int x = 0; x < getLength(); x++) {
             for (int y = 0; y < getHeight(); y++) {
                 final int slot;
@@ -159,15 +305,18 @@ public class InventoryComponent {
                     slot = (y + 1) * getLength() + x + offset;
                 }
 
-                inventory.setItem(slot, getItem(x, y));
+                contents[slot] = getItem(x, y);
             }
         }
+
+        inventory.setStorageContents(contents);
     }
 
     /**
      * This places the items currently existing in this inventory component into the specified inventory. The slots will
      * start at the given offset up to this component's size + the offset specified. In contrast to
-     * {@link #display(Inventory, int)} this does not render the panes of this component.
+     * {@link #display(Inventory, int)} this does not render the panes of this component. The items are written to the
+     * inventory at once, rather than slot by slot.
      *
      * @param inventory the inventory to place the items in
      * @param offset    the offset from which to start counting the slots
@@ -175,11 +324,86 @@ public class InventoryComponent {
      * @since 3.0.0
      */
     public void placeItems(final @NonNull Inventory inventory, final int offset) {
+        placeItems(inventory, offset, null);
+    }
+
+    /**
+     * This places the items currently existing in this inventory component into the specified inventory at once, like
+     * {@link #placeItems(Inventory, int)}, and records the placed items in the provided array, indexed by the slots of
+     * the inventory. The array can be passed to {@link #placeChangedItems(Inventory, int, ItemStack[])} afterward, so
+     * only slots that changed since are placed again. When this component covers the entire inventory, the previous
+     * contents of the inventory are replaced entirely, so the inventory doesn't need to be cleared beforehand.
+     *
+     * @param inventory   the inventory to place the items in
+     * @param offset      the offset from which to start counting the slots
+     * @param placedItems the array to record the placed items in, or null to not record them
+     * @see #placeChangedItems(Inventory, int, ItemStack[])
+     * @since 3.2.0
+     */
+    public void placeItems(final @NonNull Inventory inventory, final int offset,
+                           final @Nullable ItemStack @Nullable [] placedItems) {
+        final ItemStack[] contents;
+
+        //when this component covers the entire inventory, the current contents don't need to be retrieved
+        if (offset == 0 && getSize() == inventory.getSize()) {
+            contents = new ItemStack[getSize()];
+        } else {
+            contents = inventory.getContents();
+        }
+
+        for (int x = 0; x < getLength(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                final int slot = y * getLength() + x + offset;
+                final ItemStack item = getItem(x, y);
+
+                contents[slot] = item;
+
+                if (placedItems != null) {
+                    placedItems[slot] = item;
+                }
+            }
+        }
+
+        inventory.setContents(contents);
+    }
+
+    /**
+     * This places the items currently existing in this inventory component into the specified inventory, skipping every
+     * slot whose item is equal to the item that was last placed in that slot. The last placed items are provided as an
+     * array indexed by the slots of the inventory, a null element meaning the slot was left empty. This array will be
+     * updated in place to reflect the newly placed items, so it can be passed again on the next call. Changes made to the
+     * inventory by other means than this method are not detected. The slots will start at the given offset up to this
+     * component's size + the offset specified. In contrast to {@link #display(Inventory, int)} this does not render the
+     * panes of this component.
+     *
+     * @param inventory   the inventory to place the items in
+     * @param offset      the offset from which to start counting the slots
+     * @param placedItems the items last placed in the inventory, indexed by slot
+     * @return the amount of slots that were changed
+     * @see #placeItems(Inventory, int)
+     * @since 3.2.0
+     */
+    public int placeChangedItems(final @NonNull Inventory inventory, final int offset,
+                                 final @Nullable ItemStack @NonNull [] placedItems) {
+        int changed = 0;
+
         for (int x = 0; x < getLength(); x++) {
             for (int y = 0; y < getHeight(); y++) {
-                inventory.setItem(y * getLength() + x + offset, getItem(x, y));
+                final int slot = y * getLength() + x + offset;
+                final ItemStack item = getItem(x, y);
+                final ItemStack placedItem = placedItems[slot];
+
+                if (item == placedItem || (item != null && item.equals(placedItem))) {
+                    continue;
+                }
+
+                inventory.setItem(slot, item);
+                placedItems[slot] = item;
+                changed++;
             }
         }
+
+        return changed;
     }
 
     /**
@@ -236,6 +460,143 @@ public class InventoryComponent {
         return inventoryComponent;
     }
 
+    /**
+     * Gets a view of the specified range of rows of this inventory component. The view doesn't copy anything: it reads
+     * and writes the items of this inventory component directly, so it reflects every later render of this component.
+     * Views are cached, so requesting the same rows again returns the same view and doesn't allocate. The view shares
+     * the panes of this component, it's intended for reading and placing the items of part of this component, while
+     * rendering should be done by this component itself. The specified range is 0-indexed and inclusive on both ends.
+     * When the range specified is invalid, an {@link IllegalArgumentException} will be thrown.
+     *
+     * @param from the first row of the view
+     * @param end  the last row of the view
+     * @return the view of the rows
+     * @since 3.2.0
+     */
+    public @NonNull InventoryComponent getRowView(final int from, final int end) {
+        if (from < 0 || end >= getHeight() || from > end) {
+            throw new IllegalArgumentException("Specified range includes non-existent rows");
+        }
+
+        final int height = end - from + 1;
+
+        if (from == 0 && height == getHeight()) {
+            return this;
+        }
+
+        if (this.rowViews == null) {
+            this.rowViews = new ArrayList<>(2);
+        }
+
+        for (final InventoryComponent rowView : this.rowViews) {
+            if (rowView.rowOffset == this.rowOffset + from && rowView.height == height) {
+                return rowView;
+            }
+        }
+
+        final InventoryComponent rowView = new InventoryComponent(this, from, height);
+
+        this.rowViews.add(rowView);
+
+        return rowView;
+    }
+
+    /**
+     * Creates a lightweight copy of this inventory component, intended for copying the components of template guis.
+     * Unlike {@link #copy()}, this doesn't copy the panes and items: the returned inventory component shares the panes
+     * and items with this inventory component. Panes can be added to and removed from the returned component without
+     * affecting this component, but the shared panes themselves can't be modified: they're marked as shared via
+     * {@link Pane#markAsShared()}, so modifying them, or their items, throws an {@link IllegalStateException}. A shared
+     * pane can be replaced by a copy owned by the returned component via {@link #detachPane(Pane)}, after which that
+     * copy can be modified freely.
+     *
+     * @return the new inventory component
+     * @see Gui#markAsTemplate()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @NonNull InventoryComponent copyShared() {
+        final InventoryComponent inventoryComponent = new InventoryComponent(getLength(), getHeight());
+
+        for (int x = 0; x < getLength(); x++) {
+            System.arraycopy(this.items[x], this.rowOffset, inventoryComponent.items[x], 0, getHeight());
+            System.arraycopy(this.guiItems[x], this.rowOffset, inventoryComponent.guiItems[x], 0, getHeight());
+        }
+
+        System.arraycopy(this.rowItemCounts, this.rowOffset, inventoryComponent.rowItemCounts, 0, getHeight());
+
+        //the panes are already sorted, so they can be copied over as is
+        inventoryComponent.panes.addAll(this.panes);
+        inventoryComponent.sharedPanes = Collections.newSetFromMap(new IdentityHashMap<>());
+        inventoryComponent.sharedPanes.addAll(this.panes);
+
+        for (final Pane pane : this.panes) {
+            pane.markAsShared();
+        }
+
+        return inventoryComponent;
+    }
+
+    /**
+     * Replaces the specified pane by a copy owned by this inventory component, if the pane is shared with the template
+     * this component was copied from. The copy takes the place of the shared pane and is returned, so it can be
+     * modified without affecting the template or other copies of the template. If the pane isn't shared, because this
+     * component wasn't copied from a template or because the pane has already been detached, the pane itself is
+     * returned. Panes are copied as per their {@link Pane#copyDetached()} method, so most panes are copied along with
+     * their child panes and items, while a {@link dev.kokiriglade.popcorn.inventory.pane.PaginatedPane} keeps sharing
+     * the panes of its pages, making it cheap to detach in order to switch pages.
+     *
+     * @param pane the pane to detach
+     * @param <T>  the type of the pane
+     * @return the pane owned by this component
+     * @throws IllegalArgumentException if the pane is not part of this component
+     * @see #copyShared()
+     * @since 3.2.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Pane> @NonNull T detachPane(final @NonNull T pane) {
+        int index = -1;
+
+        for (int i = 0; i < this.panes.size(); i++) {
+            if (this.panes.get(i) == pane) {
+                index = i;
+                break;
+            }
+        }
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Pane is not part of this inventory component");
+        }
+
+        if (this.sharedPanes == null || !this.sharedPanes.remove(pane)) {
+            return pane;
+        }
+
+        final T copy = (T) pane.copyDetached();
+
+        this.panes.set(index, copy);
+
+        if (this.owner.index != null) {
+            this.owner.index.remove(pane);
+            this.owner.index.add(copy);
+        }
+
+        return copy;
+    }
+
+    /**
+     * Checks whether the specified pane is shared with the template this inventory component was copied from.
+     *
+     * @param pane the pane to check
+     * @return true if the pane is shared, false otherwise
+     * @see #detachPane(Pane)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isShared(final @NonNull Pane pane) {
+        return this.sharedPanes != null && this.sharedPanes.contains(pane);
+    }
+
     /**
      * Returns a new inventory component, excluding the range of specified rows. The new inventory component will have
      * its size shrunk so only the included rows are present and any items in the excluded rows are discarded. All panes
@@ -249,6 +610,7 @@ public class InventoryComponent {
      * @param from the starting index of the range
      * @param end  the ending index of the range
      * @return the new, shrunk inventory component
+     * @see #getRowView(int, int)
      * @since 3.0.0
      */
     @Contract(pure = true)
@@ -277,6 +639,7 @@ public class InventoryComponent {
 
                 if (item != null) {
                     newInventoryComponent.setItem(item, x, newY);
+                    newInventoryComponent.guiItems[x][newY] = getGuiItem(x, y);
                 }
 
                 newY++;
@@ -294,11 +657,9 @@ public class InventoryComponent {
      */
     @Contract(pure = true)
     public boolean hasItem() {
-        for (int x = 0; x < getLength(); x++) {
-            for (int y = 0; y < getHeight(); y++) {
-                if (getItem(x, y) != null) {
-                    return true;
-                }
+        for (int y = 0; y < getHeight(); y++) {
+            if (this.rowItemCounts[y + this.rowOffset] > 0) {
+                return true;
             }
         }
 
@@ -314,14 +675,20 @@ public class InventoryComponent {
      * @since 3.0.0
      */
     public void display() {
-        clearItems();
+        final GuiMetrics.Timer timer = GuiMetrics.start(GuiOperation.DISPLAY);
 
-        for (final Pane pane : getPanes()) {
-            if (!pane.isVisible()) {
-                continue;
-            }
+        try {
+            clearItems();
+
+            for (final Pane pane : getPanes()) {
+                if (!pane.isVisible()) {
+                    continue;
+                }
 
-            pane.display(this, 0, 0, getLength(), getHeight());
+                pane.display(this, 0, 0, getLength(), getHeight());
+            }
+        } finally {
+            timer.stop();
         }
     }
 
@@ -357,13 +724,54 @@ public class InventoryComponent {
                 "; should be below " + getLength() + " and " + getHeight());
         }
 
-        return this.items[x][y];
+        return this.items[x][y + this.rowOffset];
     }
 
     /**
-     * Gets a list of panes this inventory component contains. The returned list is modifiable. If this inventory
-     * component currently does not have any panes, an empty list is returned. This list is guaranteed to be sorted
-     * according to the panes' priorities.
+     * Gets the gui item that was rendered at the specified coordinates during the last {@link #display()}, or null if
+     * no gui item was rendered in this cell. If the specified coordinates are not within this inventory component, an
+     * {@link IllegalArgumentException} will be thrown.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the gui item or null
+     * @throws IllegalArgumentException when the coordinates are out of bounds
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable GuiItem getGuiItem(final int x, final int y) {
+        if (!isInBounds(x, y)) {
+            throw new IllegalArgumentException("Coordinates must be in-bounds: x = " + x + ", y = " + y +
+                "; should be below " + getLength() + " and " + getHeight());
+        }
+
+        return this.guiItems[x][y + this.rowOffset];
+    }
+
+    /**
+     * Gets the gui item that was rendered at the specified slot during the last {@link #display()}, or null if no gui
+     * item was rendered in this slot. The slot is counted from the top-left to the bottom-right, continuing from
+     * left-to-right, top-to-bottom. Unlike {@link #getGuiItem(int, int)}, slots outside of this inventory component
+     * will return null instead of throwing an exception.
+     *
+     * @param slot the slot
+     * @return the gui item or null
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable GuiItem getGuiItem(final int slot) {
+        if (slot < 0 || slot >= getSize()) {
+            return null;
+        }
+
+        return this.guiItems[slot % getLength()][slot / getLength() + this.rowOffset];
+    }
+
+    /**
+     * Gets a list of panes this inventory component contains. The returned list is modifiable, but panes added to or
+     * removed from it directly aren't reflected in the {@link #getIndex() index}: {@link #addPane(Pane)} and
+     * {@link #removePane(Pane)} should be used instead. If this inventory component currently does not have any panes,
+     * an empty list is returned. This list is guaranteed to be sorted according to the panes' priorities.
      *
      * @return the panes this component has
      * @since 3.0.0
@@ -376,7 +784,9 @@ public class InventoryComponent {
     /**
      * Adds the specified item in the slot at the specified positions. This will override an already set item if it
      * resides in the same position as specified. If the position specified is outside of the boundaries set by this
-     * component, an {@link IllegalArgumentException} will be thrown.
+     * component, an {@link IllegalArgumentException} will be thrown. The item placed is the gui item's
+     * {@link GuiItem#getRenderedItem() rendered item}, which is shared between renders as long as the gui item doesn't
+     * change.
      *
      * @param guiItem the item to place in this inventory component
      * @param x       the x coordinate of the item
@@ -389,10 +799,7 @@ public class InventoryComponent {
                 "; should be below " + getLength() + " and " + getHeight());
         }
 
-        final GuiItem copy = guiItem.copy();
-        copy.applyUUID();
-
-        this.items[x][y] = copy.getItem();
+        putItem(x, y, guiItem.getRenderedItem(), guiItem);
     }
 
     /**
@@ -414,7 +821,7 @@ public class InventoryComponent {
                 "; should be below " + getLength() + " and " + getHeight());
         }
 
-        this.items[x][y] = item;
+        putItem(x, y, item, null);
     }
 
     /**
@@ -451,14 +858,46 @@ public class InventoryComponent {
     }
 
     /**
-     * Clears the items of this inventory component.
+     * Clears the items and the rendered gui items of this inventory component.
      *
      * @since 3.0.0
      */
     private void clearItems() {
+        final int end = this.rowOffset + getHeight();
+
         for (final ItemStack @NonNull [] items : this.items) {
-            Arrays.fill(items, null);
+            Arrays.fill(items, this.rowOffset, end, null);
+        }
+
+        for (final GuiItem @NonNull [] guiItems : this.guiItems) {
+            Arrays.fill(guiItems, this.rowOffset, end, null);
+        }
+
+        Arrays.fill(this.rowItemCounts, this.rowOffset, end, 0);
+    }
+
+    /**
+     * Stores the item and the gui item in the specified cell, keeping the item count of the row up to date. The
+     * coordinates must be in bounds.
+     *
+     * @param x       the x coordinate
+     * @param y       the y coordinate
+     * @param item    the item to store
+     * @param guiItem the gui item the item was rendered from, or null
+     * @since 3.2.0
+     */
+    private void putItem(final int x, final int y, final @Nullable ItemStack item, final @Nullable GuiItem guiItem) {
+        final int row = y + this.rowOffset;
+        final ItemStack previous = this.items[x][row];
+
+        if (previous == null && item != null) {
+            this.rowItemCounts[row]++;
+        } else if (previous != null && item == null) {
+            this.rowItemCounts[row]--;
         }
+
+        this.items[x][row] = item;
+        this.guiItems[x][row] = guiItem;
     }
 
     /**
@@ -0,0 +1,36 @@
+package dev.kokiriglade.popcorn.inventory.gui.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ * A periodic flight recorder event recording the amount of open guis and viewers
+ *
+ * @since 3.2.0
+ */
+@Name("dev.kokiriglade.popcorn.GuiCount")
+@Label("Gui Count")
+@Description("The amount of guis that are open and the amount of viewers viewing them")
+@Category({"Popcorn", "Gui"})
+@Period("1 s")
+@StackTrace(false)
+final class GuiCountEvent extends Event {
+
+    /**
+     * The amount of guis with at least one viewer
+     */
+    @Label("Open Guis")
+    int openGuis;
+
+    /**
+     * The amount of viewers with a gui open
+     */
+    @Label("Viewers")
+    int viewers;
+
+}
@@ -0,0 +1,425 @@
+package dev.kokiriglade.popcorn.inventory.gui.metrics;
+
+import dev.kokiriglade.popcorn.inventory.gui.GuiRegistry;
+import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects timings of gui operations, per gui class. Every operation is recorded in two ways: as a
+ * {@code dev.kokiriglade.popcorn.GuiOperation} flight recorder event, which is only emitted while a recording is
+ * running, and in the timings of this class, which can be read at any time, e.g. by a command or a metrics exporter.
+ * Additionally, the amount of open guis and viewers is recorded every second as a
+ * {@code dev.kokiriglade.popcorn.GuiCount} flight recorder event, until {@link #shutdown()} is called.
+ * <p>
+ * Timings are inclusive: the timing of an operation contains the timings of all operations it performed itself, e.g.
+ * the timing of a click contains the action of the clicked item, and the timing of showing a gui contains the display
+ * of its inventory components. Operations which don't know their gui, like displaying an inventory component or
+ * running the action of an item, are attributed to the gui class of the operation they are performed by, or to
+ * {@link Gui} if they are performed outside a gui operation.
+ * </p>
+ * <p>
+ * Timings aren't collected until they are enabled with {@link #setEnabled(boolean)}, so operations don't allocate
+ * anything unless timings are collected or a recording wants the flight recorder events. Operations are attributed to
+ * the innermost running operation of the same thread, while the timings may be read from any thread.
+ * </p>
+ *
+ * @since 3.2.0
+ */
+@SuppressWarnings("unused")
+public final class GuiMetrics {
+
+    /**
+     * The event type of the operation events, used to check whether a recording wants these events
+     */
+    private static final @NonNull EventType OPERATION_EVENT_TYPE = EventType.getEventType(GuiOperationEvent.class);
+
+    /**
+     * The operations of guis
+     */
+    private static final GuiOperation @NonNull [] OPERATIONS = GuiOperation.values();
+
+    /**
+     * The timer returned when nothing is being recorded
+     */
+    private static final @NonNull Timer NO_OP = new Timer(Gui.class, GuiOperation.UPDATE, null, null);
+
+    /**
+     * The timings per gui class, indexed by the ordinal of the operation
+     */
+    private static final @NonNull Map<Class<?>, Timing[]> TIMINGS = new ConcurrentHashMap<>();
+
+    /**
+     * Whether timings are collected by this class
+     */
+    private static volatile boolean enabled;
+
+    /**
+     * The hook emitting the periodic gui count events. The same instance must be used to remove it from the flight
+     * recorder again.
+     */
+    private static final @NonNull Runnable GUI_COUNT_HOOK = () -> {
+        final GuiCountEvent event = new GuiCountEvent();
+
+        event.openGuis = GuiRegistry.getActiveGuiCount();
+        event.viewers = GuiRegistry.getViewerCount();
+        event.commit();
+    };
+
+    /**
+     * The gui class of the innermost running operation of each thread, or null if no operation is running on a thread
+     */
+    private static final @NonNull ThreadLocal<Class<?>> CURRENT_GUI_CLASS = new ThreadLocal<>();
+
+    static {
+        FlightRecorder.addPeriodicEvent(GuiCountEvent.class, GUI_COUNT_HOOK);
+    }
+
+    /**
+     * A private constructor to prevent construction.
+     */
+    private GuiMetrics() {
+    }
+
+    /**
+     * Starts timing an operation of the specified gui class. The returned timer must be stopped once the operation
+     * completed, preferably in a finally block.
+     *
+     * @param guiClass  the class of the gui performing the operation
+     * @param operation the operation
+     * @return the timer of the operation
+     * @since 3.2.0
+     */
+    public static @NonNull Timer start(final @NonNull Class<?> guiClass, final @NonNull GuiOperation operation) {
+        final boolean recording = OPERATION_EVENT_TYPE.isEnabled();
+
+        if (!enabled && !recording) {
+            return NO_OP;
+        }
+
+        GuiOperationEvent event = null;
+
+        if (recording) {
+            event = new GuiOperationEvent();
+            event.begin();
+        }
+
+        final Timer timer = new Timer(guiClass, operation, event, CURRENT_GUI_CLASS.get());
+
+        CURRENT_GUI_CLASS.set(guiClass);
+
+        return timer;
+    }
+
+    /**
+     * Starts timing an operation of the gui whose operation is currently running. If no gui operation is running, the
+     * operation is attributed to {@link Gui}. The returned timer must be stopped once the operation completed,
+     * preferably in a finally block.
+     *
+     * @param operation the operation
+     * @return the timer of the operation
+     * @since 3.2.0
+     */
+    public static @NonNull Timer start(final @NonNull GuiOperation operation) {
+        final Class<?> guiClass = CURRENT_GUI_CLASS.get();
+
+        return start(guiClass == null ? Gui.class : guiClass, operation);
+    }
+
+    /**
+     * Sets whether timings are collected by this class. Timings are disabled by default. Flight recorder events are
+     * emitted regardless of this setting, as long as a recording is running. Timings collected so far are kept when
+     * disabling.
+     *
+     * @param enabled whether timings should be collected
+     * @since 3.2.0
+     */
+    public static void setEnabled(final boolean enabled) {
+        GuiMetrics.enabled = enabled;
+    }
+
+    /**
+     * Gets whether timings are collected by this class
+     *
+     * @return true if timings are collected, false otherwise
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the timing of the specified operation of the specified gui class
+     *
+     * @param guiClass  the class of the gui
+     * @param operation the operation
+     * @return the timing, or null if the operation hasn't been timed for this gui class
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @Nullable Timing getTiming(final @NonNull Class<?> guiClass, final @NonNull GuiOperation operation) {
+        final Timing[] timings = TIMINGS.get(guiClass);
+
+        return timings == null ? null : timings[operation.ordinal()];
+    }
+
+    /**
+     * Gets the gui classes for which operations have been timed
+     *
+     * @return the gui classes
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static @NonNull Set<@NonNull Class<?>> getGuiClasses() {
+        return Set.copyOf(TIMINGS.keySet());
+    }
+
+    /**
+     * Gets the amount of distinct guis that currently have at least one viewer
+     *
+     * @return the amount of open guis
+     * @see GuiRegistry#getActiveGuiCount()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int getOpenGuiCount() {
+        return GuiRegistry.getActiveGuiCount();
+    }
+
+    /**
+     * Gets the amount of viewers that currently have a gui open
+     *
+     * @return the amount of viewers
+     * @see GuiRegistry#getViewerCount()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int getViewerCount() {
+        return GuiRegistry.getViewerCount();
+    }
+
+    /**
+     * Discards all timings collected so far
+     *
+     * @since 3.2.0
+     */
+    public static void reset() {
+        TIMINGS.clear();
+    }
+
+    /**
+     * Stops emitting the periodic gui count events. The flight recorder keeps a reference to its periodic hooks, so
+     * this must be called once the owning plugin is disabled, otherwise this class and the class loader of the plugin
+     * can't be unloaded. This is called automatically when the plugin owning the gui listener is disabled.
+     *
+     * @since 3.2.0
+     */
+    public static void shutdown() {
+        FlightRecorder.removePeriodicEvent(GUI_COUNT_HOOK);
+    }
+
+    /**
+     * Adds the duration of an operation to the timings of its gui class
+     *
+     * @param guiClass  the class of the gui that performed the operation
+     * @param operation the operation
+     * @param duration  the duration in nanoseconds
+     * @since 3.2.0
+     */
+    private static void record(final @NonNull Class<?> guiClass, final @NonNull GuiOperation operation,
+                               final long duration) {
+        final Timing[] timings = TIMINGS.computeIfAbsent(guiClass, key -> {
+            final Timing[] array = new Timing[OPERATIONS.length];
+
+            for (final GuiOperation value : OPERATIONS) {
+                array[value.ordinal()] = new Timing();
+            }
+
+            return array;
+        });
+
+        timings[operation.ordinal()].add(duration);
+    }
+
+    /**
+     * A running gui operation, created by {@link #start(Class, GuiOperation)}
+     *
+     * @since 3.2.0
+     */
+    public static final class Timer {
+
+        /**
+         * The class of the gui performing the operation
+         */
+        private final @NonNull Class<?> guiClass;
+
+        /**
+         * The operation
+         */
+        private final @NonNull GuiOperation operation;
+
+        /**
+         * The flight recorder event of the operation, or null if no recording wants it
+         */
+        private final @Nullable GuiOperationEvent event;
+
+        /**
+         * The gui class of the operation running before this one started
+         */
+        private final @Nullable Class<?> previousGuiClass;
+
+        /**
+         * The time this operation started at in nanoseconds
+         */
+        private final long start;
+
+        /**
+         * Creates a new timer
+         *
+         * @param guiClass         the class of the gui performing the operation
+         * @param operation        the operation
+         * @param event            the flight recorder event of the operation, or null
+         * @param previousGuiClass the gui class of the operation running before this one started
+         * @since 3.2.0
+         */
+        private Timer(final @NonNull Class<?> guiClass, final @NonNull GuiOperation operation,
+                      final @Nullable GuiOperationEvent event, final @Nullable Class<?> previousGuiClass) {
+            this.guiClass = guiClass;
+            this.operation = operation;
+            this.event = event;
+            this.previousGuiClass = previousGuiClass;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Stops this timer and records the duration of the operation
+         *
+         * @since 3.2.0
+         */
+        public void stop() {
+            if (this == NO_OP) {
+                return;
+            }
+
+            final long duration = System.nanoTime() - this.start;
+
+            CURRENT_GUI_CLASS.set(this.previousGuiClass);
+
+            if (this.event != null) {
+                this.event.end();
+
+                if (this.event.shouldCommit()) {
+                    this.event.operation = this.operation.name();
+                    this.event.guiClass = this.guiClass;
+                    this.event.commit();
+                }
+            }
+
+            if (enabled) {
+                record(this.guiClass, this.operation, duration);
+            }
+        }
+
+    }
+
+    /**
+     * The collected timing of an operation of a gui class
+     *
+     * @since 3.2.0
+     */
+    public static final class Timing {
+
+        /**
+         * The amount of times the operation was performed
+         */
+        private final @NonNull LongAdder count = new LongAdder();
+
+        /**
+         * The total duration of the operation in nanoseconds
+         */
+        private final @NonNull LongAdder totalNanos = new LongAdder();
+
+        /**
+         * The longest duration of the operation in nanoseconds
+         */
+        private final @NonNull LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+        /**
+         * Creates a new timing
+         *
+         * @since 3.2.0
+         */
+        private Timing() {
+        }
+
+        /**
+         * Adds a single performance of the operation
+         *
+         * @param duration the duration in nanoseconds
+         * @since 3.2.0
+         */
+        private void add(final long duration) {
+            this.count.increment();
+            this.totalNanos.add(duration);
+            this.maxNanos.accumulate(duration);
+        }
+
+        /**
+         * Gets the amount of times the operation was performed
+         *
+         * @return the amount of times
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public long getCount() {
+            return this.count.sum();
+        }
+
+        /**
+         * Gets the total duration of the operation
+         *
+         * @return the total duration in nanoseconds
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        /**
+         * Gets the longest duration of the operation
+         *
+         * @return the longest duration in nanoseconds
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public long getMaxNanos() {
+            return this.maxNanos.get();
+        }
+
+        /**
+         * Gets the average duration of the operation
+         *
+         * @return the average duration in nanoseconds, or zero if the operation hasn't been performed
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        public long getAverageNanos() {
+            final long count = getCount();
+
+            return count == 0 ? 0 : getTotalNanos() / count;
+        }
+
+    }
+
+}
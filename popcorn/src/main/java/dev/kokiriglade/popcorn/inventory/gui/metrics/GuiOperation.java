@@ -0,0 +1,66 @@
+package dev.kokiriglade.popcorn.inventory.gui.metrics;
+
+/**
+ * The operations of guis that are timed by {@link GuiMetrics}
+ *
+ * @since 3.2.0
+ */
+public enum GuiOperation {
+
+    /**
+     * Showing a gui to a viewer
+     *
+     * @since 3.2.0
+     */
+    SHOW,
+
+    /**
+     * Updating a gui for all its viewers
+     *
+     * @since 3.2.0
+     */
+    UPDATE,
+
+    /**
+     * Rendering the panes of an inventory component
+     *
+     * @since 3.2.0
+     */
+    DISPLAY,
+
+    /**
+     * Handling a click in a gui
+     *
+     * @since 3.2.0
+     */
+    CLICK,
+
+    /**
+     * Handling a drag in a gui
+     *
+     * @since 3.2.0
+     */
+    DRAG,
+
+    /**
+     * Handling the closing of a gui
+     *
+     * @since 3.2.0
+     */
+    CLOSE,
+
+    /**
+     * Running a callback of a gui, e.g. its click or close handler
+     *
+     * @since 3.2.0
+     */
+    CALLBACK,
+
+    /**
+     * Running the action of a gui item
+     *
+     * @since 3.2.0
+     */
+    ACTION
+
+}
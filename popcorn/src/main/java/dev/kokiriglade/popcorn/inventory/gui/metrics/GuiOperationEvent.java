@@ -0,0 +1,34 @@
+package dev.kokiriglade.popcorn.inventory.gui.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event recording the duration of a {@link GuiOperation}
+ *
+ * @since 3.2.0
+ */
+@Name("dev.kokiriglade.popcorn.GuiOperation")
+@Label("Gui Operation")
+@Description("An operation performed by a gui, e.g. showing or updating it")
+@Category({"Popcorn", "Gui"})
+@StackTrace(false)
+final class GuiOperationEvent extends Event {
+
+    /**
+     * The name of the operation
+     */
+    @Label("Operation")
+    String operation;
+
+    /**
+     * The class of the gui performing the operation
+     */
+    @Label("Gui Class")
+    Class<?> guiClass;
+
+}
@@ -1,7 +1,9 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
+import dev.kokiriglade.popcorn.inventory.gui.GuiRegistry;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiMetrics;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiOperation;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.AnvilInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.AnvilInventoryImpl;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.InventoryBased;
@@ -15,6 +17,7 @@ import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
@@ -23,7 +26,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 
 /**
@@ -47,6 +52,38 @@ public class AnvilGui extends NamedGui implements InventoryBased {
      */
     private @NonNull Consumer<? super String> onNameInputChanged = (name) -> {
     };
+    /**
+     * Called with the latest name input once it has been debounced, or null if no such handler is set
+     */
+    private @Nullable Function<? super String, ? extends @Nullable CompletableFuture<?>> onDebouncedNameInput;
+    /**
+     * The amount of ticks the name input has to stay unchanged before it's delivered to the debounced handler
+     */
+    private int nameInputQuietTicks;
+    /**
+     * The maximum amount of ticks a name input is delayed before it's delivered to the debounced handler, or zero
+     */
+    private int nameInputMaxTicks;
+    /**
+     * The latest name input that hasn't been delivered to the debounced handler yet, or null if there is none
+     */
+    private @Nullable String pendingNameInput;
+    /**
+     * The tick at which the oldest undelivered name input was made, or -1 if there is none
+     */
+    private int pendingNameInputTick = -1;
+    /**
+     * The task delivering the pending name input, or null if no delivery is scheduled
+     */
+    private @Nullable BukkitTask nameInputTask;
+    /**
+     * The name input last delivered to the debounced handler, or null if none was delivered yet
+     */
+    private @Nullable String deliveredNameInput;
+    /**
+     * The work started by the debounced handler for the last delivered name input, or null if there is none
+     */
+    private @Nullable CompletableFuture<?> nameInputWork;
     /**
      * Represents the inventory component for the first item
      */
@@ -91,7 +128,7 @@ public class AnvilGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Anvils can only be opened by players");
         }
@@ -110,11 +147,7 @@ public class AnvilGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -123,6 +156,10 @@ public class AnvilGui extends NamedGui implements InventoryBased {
 
         addInventory(inventory, this);
 
+        if (!addViewer(humanEntity)) {
+            return;
+        }
+
         this.viewers.add(humanEntity);
     }
 
@@ -131,10 +168,10 @@ public class AnvilGui extends NamedGui implements InventoryBased {
     public @NonNull AnvilGui copy() {
         final AnvilGui gui = new AnvilGui(getTitle(), super.plugin);
 
-        gui.firstItemComponent = firstItemComponent.copy();
-        gui.secondItemComponent = secondItemComponent.copy();
-        gui.resultComponent = resultComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.firstItemComponent = copyComponent(firstItemComponent);
+        gui.secondItemComponent = copyComponent(secondItemComponent);
+        gui.resultComponent = copyComponent(resultComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -142,9 +179,19 @@ public class AnvilGui extends NamedGui implements InventoryBased {
         gui.setOnOutsideClick(this.onOutsideClick);
         gui.setOnClose(this.onClose);
 
+        gui.nameInputQuietTicks = this.nameInputQuietTicks;
+        gui.nameInputMaxTicks = this.nameInputMaxTicks;
+        gui.onDebouncedNameInput = this.onDebouncedNameInput;
+
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(firstItemComponent, secondItemComponent, resultComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -260,13 +307,52 @@ public class AnvilGui extends NamedGui implements InventoryBased {
     }
 
     /**
-     * Handles a human entity closing this gui.
+     * Renders the player inventory component again and places it in the inventories of the viewers that have this gui
+     * open, without opening the anvil again. Unlike {@link #update()}, which opens a new anvil and thereby clears the
+     * text the viewers are typing, this keeps the rename text, so it can be used to show results while the viewers
+     * type. The other components are not rendered again; their changes are shown on the next update.
      *
-     * @param humanEntity the human entity closing the gui
-     * @since 3.0.0
+     * @since 3.2.0
      */
+    public void updatePlayerInventory() {
+        final GuiMetrics.Timer timer = GuiMetrics.start(getClass(), GuiOperation.UPDATE);
+
+        try {
+            getPlayerInventoryComponent().display();
+
+            for (final HumanEntity viewer : this.viewers) {
+                if (GuiRegistry.getGui(viewer) != this) {
+                    continue;
+                }
+
+                getHumanEntityCache().acquire(viewer, this);
+
+                getPlayerInventoryComponent().placeItems(viewer.getInventory(), 0);
+            }
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override
     public void handleClose(final @NonNull HumanEntity humanEntity) {
         this.viewers.remove(humanEntity);
+
+        if (isOpen()) {
+            return;
+        }
+
+        //the session ended, so pending inputs and their work are obsolete and a reopened gui starts afresh
+        if (this.nameInputTask != null) {
+            this.nameInputTask.cancel();
+            this.nameInputTask = null;
+        }
+
+        cancelNameInputWork();
+
+        this.pendingNameInput = null;
+        this.pendingNameInputTick = -1;
+        this.deliveredNameInput = null;
     }
 
     /**
@@ -281,9 +367,77 @@ public class AnvilGui extends NamedGui implements InventoryBased {
         this.onNameInputChanged = onNameInputChanged;
     }
 
+    /**
+     * Sets the handler that should be called with the name input once it has been debounced, e.g. to run a search
+     * query. Unlike {@link #setOnNameInputChanged(Consumer)}, which is called for every keystroke, this handler is only
+     * called with the latest input once typing has paused, as configured by {@link #setNameInputDebounce(int, int)},
+     * and it isn't called again for the same input twice in a row. When this handler is called, the value returned by
+     * {@link #getRenameText()} has already been updated.
+     * <p>
+     * The handler may return a future for the work it started for the input, or null if it did all its work
+     * immediately. When a newer input is delivered, or once the last viewer closed this gui, the future of the previous
+     * input is cancelled, so work for inputs that have been superseded can stop early. Inputs that are still pending
+     * when the last viewer closes this gui are discarded.
+     * </p>
+     *
+     * @param onDebouncedNameInput the handler, or null to remove the handler
+     * @since 3.2.0
+     */
+    public void setOnDebouncedNameInput(
+        final @Nullable Function<? super String, ? extends @Nullable CompletableFuture<?>> onDebouncedNameInput
+    ) {
+        this.onDebouncedNameInput = onDebouncedNameInput;
+    }
+
+    /**
+     * Configures when name inputs are delivered to the handler set by {@link #setOnDebouncedNameInput(Function)}. An
+     * input is delivered once the name input hasn't changed for {@code quietTicks} ticks, but never later than
+     * {@code maxTicks} ticks after the first undelivered change, so continuous typing still produces regular results.
+     * A value of zero disables the respective limit: with only {@code maxTicks} set, the latest input is delivered at
+     * most once per {@code maxTicks} ticks, and with neither set, every input is delivered immediately.
+     *
+     * @param quietTicks the amount of ticks the name input has to stay unchanged
+     * @param maxTicks   the maximum amount of ticks an input may be delayed
+     * @throws IllegalArgumentException when either value is negative
+     * @since 3.2.0
+     */
+    public void setNameInputDebounce(final int quietTicks, final int maxTicks) {
+        if (quietTicks < 0 || maxTicks < 0) {
+            throw new IllegalArgumentException("Debounce ticks must be non-negative");
+        }
+
+        this.nameInputQuietTicks = quietTicks;
+        this.nameInputMaxTicks = maxTicks;
+    }
+
+    /**
+     * Gets the amount of ticks the name input has to stay unchanged before it's delivered to the debounced handler
+     *
+     * @return the amount of ticks, zero if inputs aren't delayed until typing pauses
+     * @see #setNameInputDebounce(int, int)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getNameInputQuietTicks() {
+        return nameInputQuietTicks;
+    }
+
+    /**
+     * Gets the maximum amount of ticks a name input is delayed before it's delivered to the debounced handler
+     *
+     * @return the amount of ticks, zero if there is no maximum
+     * @see #setNameInputDebounce(int, int)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getNameInputMaxTicks() {
+        return nameInputMaxTicks;
+    }
+
     /**
      * Calls the consumer that was specified using {@link #setOnNameInputChanged(Consumer)}, so the consumer that should
      * be called whenever the rename input is changed. Catches and logs all exceptions the consumer might throw.
+     * Afterwards, the delivery of the new input to the debounced handler is scheduled.
      *
      * @param newInput the new rename input
      * @since 3.0.0
@@ -296,6 +450,110 @@ public class AnvilGui extends NamedGui implements InventoryBased {
 
             this.plugin.getLogger().log(Level.SEVERE, message, throwable);
         }
+
+        if (this.onDebouncedNameInput != null) {
+            debounceNameInput(newInput);
+        }
+    }
+
+    /**
+     * Schedules the delivery of the specified input to the debounced handler, replacing the delivery of any input that
+     * hasn't been delivered yet.
+     *
+     * @param input the new name input
+     * @since 3.2.0
+     */
+    private void debounceNameInput(final @NonNull String input) {
+        final int tick = Bukkit.getCurrentTick();
+
+        this.pendingNameInput = input;
+
+        if (this.pendingNameInputTick < 0) {
+            this.pendingNameInputTick = tick;
+        }
+
+        if (this.nameInputTask != null) {
+            this.nameInputTask.cancel();
+            this.nameInputTask = null;
+        }
+
+        final int remaining = this.nameInputMaxTicks == 0
+            ? Integer.MAX_VALUE
+            : this.pendingNameInputTick + this.nameInputMaxTicks - tick;
+        final int delay = this.nameInputQuietTicks == 0 ? remaining : Math.min(this.nameInputQuietTicks, remaining);
+
+        if (delay <= 0 || delay == Integer.MAX_VALUE) {
+            deliverNameInput();
+            return;
+        }
+
+        this.nameInputTask = Bukkit.getScheduler().runTaskLater(this.plugin, this::deliverNameInput, delay);
+    }
+
+    /**
+     * Delivers the pending name input to the debounced handler, cancelling the work of the previously delivered input.
+     * The input is dropped if no viewer has this gui open anymore or if it equals the previously delivered input.
+     *
+     * @since 3.2.0
+     */
+    private void deliverNameInput() {
+        final String input = this.pendingNameInput;
+        final Function<? super String, ? extends CompletableFuture<?>> handler = this.onDebouncedNameInput;
+
+        this.pendingNameInput = null;
+        this.pendingNameInputTick = -1;
+        this.nameInputTask = null;
+
+        if (!isOpen()) {
+            cancelNameInputWork();
+            this.deliveredNameInput = null;
+            return;
+        }
+
+        if (input == null || handler == null || input.equals(this.deliveredNameInput)) {
+            return;
+        }
+
+        cancelNameInputWork();
+
+        this.deliveredNameInput = input;
+
+        try {
+            this.nameInputWork = handler.apply(input);
+        } catch (final Throwable throwable) {
+            final String message = "Exception while handling onDebouncedNameInput, input='" + input + "'";
+
+            this.plugin.getLogger().log(Level.SEVERE, message, throwable);
+        }
+    }
+
+    /**
+     * Cancels the work started by the debounced handler for the last delivered name input, if it's still running
+     *
+     * @since 3.2.0
+     */
+    private void cancelNameInputWork() {
+        if (this.nameInputWork != null) {
+            this.nameInputWork.cancel(true);
+            this.nameInputWork = null;
+        }
+    }
+
+    /**
+     * Checks whether any viewer of this gui still has it open
+     *
+     * @return true if this gui is still open, false otherwise
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private boolean isOpen() {
+        for (final HumanEntity viewer : this.viewers) {
+            if (GuiRegistry.getGui(viewer) == this) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     /**
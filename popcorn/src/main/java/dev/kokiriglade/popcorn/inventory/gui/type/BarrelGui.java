@@ -1,26 +1,29 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.InventoryBased;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.MergedGui;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.NamedGui;
 import dev.kokiriglade.popcorn.inventory.pane.Pane;
+import dev.kokiriglade.popcorn.inventory.pane.PaneIndex;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Represents a gui in the form of a barrel.
@@ -34,6 +37,12 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
      */
     private @NonNull InventoryComponent inventoryComponent = new InventoryComponent(9, 7);
 
+    /**
+     * The items that were last placed in the inventory, indexed by slot. This is null when the inventory has not been
+     * shown yet.
+     */
+    private @Nullable ItemStack @Nullable [] placedItems;
+
     /**
      * Constructs a new GUI
      *
@@ -57,34 +66,93 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
-        if (isDirty()) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
+        showShared(List.of(humanEntity));
+    }
+
+    @Override
+    protected boolean showShared(final @NonNull List<HumanEntity> humanEntities) {
+        if (isInventoryOutdated()) {
             this.inventory = createInventory();
             markChanges();
         }
 
-        getInventory().clear();
+        final int height = getInventoryComponent().getHeight();
+
+        getInventoryComponent().display();
+
+        final InventoryComponent topComponent = getInventoryComponent().getRowView(0, height - 5);
+        final InventoryComponent bottomComponent = getInventoryComponent().getRowView(height - 4, height - 1);
+
+        //the top component covers the entire inventory, so its contents are replaced at once instead of slot by slot
+        this.placedItems = new ItemStack[getInventory().getSize()];
+        topComponent.placeItems(getInventory(), 0, this.placedItems);
+
+        final boolean bottomUsed = bottomComponent.hasItem();
+        final boolean bottomVirtual = bottomUsed && isVirtualPlayerInventory();
+
+        setVirtualPlayerInventoryItems(bottomVirtual ? bottomComponent : null, getInventory().getSize());
+        setDynamicItems(getInventoryComponent());
+
+        for (final HumanEntity humanEntity : humanEntities) {
+            if (bottomUsed && !bottomVirtual) {
+                getHumanEntityCache().acquire(humanEntity, this);
+
+                bottomComponent.placeItems(humanEntity.getInventory(), 0);
+            }
+
+            humanEntity.openInventory(getInventory());
+
+            if (!addViewer(humanEntity)) {
+                continue;
+            }
+
+            sendTitle(humanEntity);
+            sendClientSideItems(humanEntity);
+        }
+
+        return true;
+    }
+
+    @Override
+    protected boolean updateContents() {
+        if (this.placedItems == null || !updateTitle()) {
+            return false;
+        }
 
         final int height = getInventoryComponent().getHeight();
 
         getInventoryComponent().display();
 
-        final InventoryComponent topComponent = getInventoryComponent().excludeRows(height - 4, height - 1);
-        final InventoryComponent bottomComponent = getInventoryComponent().excludeRows(0, height - 5);
+        final InventoryComponent topComponent = getInventoryComponent().getRowView(0, height - 5);
+        final InventoryComponent bottomComponent = getInventoryComponent().getRowView(height - 4, height - 1);
+
+        final int changedSlots = topComponent.placeChangedItems(getInventory(), 0, this.placedItems);
+
+        final boolean bottomUsed = bottomComponent.hasItem();
+        final boolean bottomVirtual = bottomUsed && isVirtualPlayerInventory();
 
-        topComponent.placeItems(getInventory(), 0);
+        setVirtualPlayerInventoryItems(bottomVirtual ? bottomComponent : null, getInventory().getSize());
+        setDynamicItems(getInventoryComponent());
 
-        if (bottomComponent.hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
+        final boolean bottomPlaced = bottomUsed && !bottomVirtual;
 
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
+        for (final HumanEntity viewer : getViewers()) {
+            if (bottomPlaced) {
+                getHumanEntityCache().acquire(viewer, this);
+
+                bottomComponent.placeItems(viewer.getInventory(), 0);
             }
 
-            bottomComponent.placeItems(humanEntity.getInventory(), 0);
+            //a single packet with all contents is cheaper than a packet for every changed slot
+            if (changedSlots > 1 || bottomPlaced) {
+                sendContents(viewer);
+            }
+
+            sendClientSideItems(viewer);
         }
 
-        humanEntity.openInventory(getInventory());
+        return true;
     }
 
     @Contract(pure = true)
@@ -92,13 +160,17 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
     public @NonNull BarrelGui copy() {
         final BarrelGui gui = new BarrelGui(getTitle(), super.plugin);
 
-        gui.inventoryComponent = inventoryComponent.copy();
+        gui.inventoryComponent = copyComponent(inventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
         gui.setOnGlobalClick(this.onGlobalClick);
         gui.setOnOutsideClick(this.onOutsideClick);
         gui.setOnClose(this.onClose);
+        gui.setIncrementalUpdates(isIncrementalUpdates());
+        gui.setSharedView(isSharedView());
+        gui.setVirtualPlayerInventory(isVirtualPlayerInventory());
+        getOverlays().forEach(gui::setOverlay);
 
         return gui;
     }
@@ -112,6 +184,12 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
         return inventory;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         getInventoryComponent().click(this, event, event.getRawSlot());
@@ -120,7 +198,9 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
     @Contract(pure = true)
     @Override
     public boolean isPlayerInventoryUsed() {
-        return getInventoryComponent().excludeRows(0, getInventoryComponent().getHeight() - 5).hasItem();
+        final int height = getInventoryComponent().getHeight();
+
+        return getInventoryComponent().getRowView(height - 4, height - 1).hasItem();
     }
 
     @Override
@@ -137,7 +217,12 @@ public class BarrelGui extends NamedGui implements MergedGui, InventoryBased {
     @Contract(pure = true)
     @Override
     public @NonNull Collection<GuiItem> getItems() {
-        return getPanes().stream().flatMap(pane -> pane.getItems().stream()).collect(Collectors.toSet());
+        final PaneIndex index = this.inventoryComponent.getIndex();
+        final Set<GuiItem> items = HashSet.newHashSet(index.getItemCount());
+
+        index.forEachItem(items::add);
+
+        return items;
     }
 
     @Contract(pure = true)
@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.BeaconInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.BeaconInventoryImpl;
@@ -61,7 +60,7 @@ public class BeaconGui extends Gui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Beacons can only be opened by players");
         }
@@ -72,11 +71,7 @@ public class BeaconGui extends Gui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -85,6 +80,8 @@ public class BeaconGui extends Gui implements InventoryBased {
         humanEntity.openInventory(getInventory());
 
         beaconInventory.openInventory((Player) humanEntity, getPaymentItemComponent().getItem(0, 0));
+
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -92,18 +89,25 @@ public class BeaconGui extends Gui implements InventoryBased {
     public @NonNull BeaconGui copy() {
         final BeaconGui gui = new BeaconGui(super.plugin);
 
-        gui.paymentItemComponent = paymentItemComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.paymentItemComponent = copyComponent(paymentItemComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
         gui.setOnGlobalClick(this.onGlobalClick);
         gui.setOnOutsideClick(this.onOutsideClick);
         gui.setOnClose(this.onClose);
+        getProperties().forEach(gui::setProperty);
 
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(paymentItemComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
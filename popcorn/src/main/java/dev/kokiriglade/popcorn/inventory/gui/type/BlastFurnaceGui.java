@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.InventoryBased;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.NamedGui;
@@ -67,7 +66,7 @@ public class BlastFurnaceGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (isDirty()) {
             this.inventory = createInventory();
             markChanges();
@@ -81,16 +80,13 @@ public class BlastFurnaceGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
 
         humanEntity.openInventory(getInventory());
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -98,20 +94,27 @@ public class BlastFurnaceGui extends NamedGui implements InventoryBased {
     public @NonNull BlastFurnaceGui copy() {
         final BlastFurnaceGui gui = new BlastFurnaceGui(getTitle(), super.plugin);
 
-        gui.ingredientComponent = ingredientComponent.copy();
-        gui.fuelComponent = fuelComponent.copy();
-        gui.outputComponent = outputComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.ingredientComponent = copyComponent(ingredientComponent);
+        gui.fuelComponent = copyComponent(fuelComponent);
+        gui.outputComponent = copyComponent(outputComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
         gui.setOnGlobalClick(this.onGlobalClick);
         gui.setOnOutsideClick(this.onOutsideClick);
         gui.setOnClose(this.onClose);
+        getProperties().forEach(gui::setProperty);
 
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(ingredientComponent, fuelComponent, outputComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.InventoryBased;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.NamedGui;
@@ -77,7 +76,7 @@ public class BrewingStandGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (isDirty()) {
             this.inventory = createInventory();
             markChanges();
@@ -93,16 +92,13 @@ public class BrewingStandGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
 
         humanEntity.openInventory(getInventory());
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -110,22 +106,32 @@ public class BrewingStandGui extends NamedGui implements InventoryBased {
     public @NonNull BrewingStandGui copy() {
         final BrewingStandGui gui = new BrewingStandGui(getTitle(), super.plugin);
 
-        gui.firstBottleComponent = firstBottleComponent.copy();
-        gui.secondBottleComponent = secondBottleComponent.copy();
-        gui.thirdBottleComponent = thirdBottleComponent.copy();
-        gui.potionIngredientComponent = potionIngredientComponent.copy();
-        gui.blazePowderComponent = blazePowderComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.firstBottleComponent = copyComponent(firstBottleComponent);
+        gui.secondBottleComponent = copyComponent(secondBottleComponent);
+        gui.thirdBottleComponent = copyComponent(thirdBottleComponent);
+        gui.potionIngredientComponent = copyComponent(potionIngredientComponent);
+        gui.blazePowderComponent = copyComponent(blazePowderComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
         gui.setOnGlobalClick(this.onGlobalClick);
         gui.setOnOutsideClick(this.onOutsideClick);
         gui.setOnClose(this.onClose);
+        getProperties().forEach(gui::setProperty);
 
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(
+            firstBottleComponent, secondBottleComponent, thirdBottleComponent, potionIngredientComponent,
+            blazePowderComponent, playerInventoryComponent
+        );
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
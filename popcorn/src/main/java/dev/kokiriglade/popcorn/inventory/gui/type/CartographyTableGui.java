@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.CartographyTableInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.CartographyTableInventoryImpl;
@@ -73,7 +72,7 @@ public class CartographyTableGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Cartography tables can only be opened by players");
         }
@@ -91,11 +90,7 @@ public class CartographyTableGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -104,6 +99,8 @@ public class CartographyTableGui extends NamedGui implements InventoryBased {
         humanEntity.openInventory(getInventory());
 
         cartographyTableInventory.openInventory((Player) humanEntity, getTitle(), getTopItems());
+
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -111,10 +108,10 @@ public class CartographyTableGui extends NamedGui implements InventoryBased {
     public @NonNull CartographyTableGui copy() {
         final CartographyTableGui gui = new CartographyTableGui(getTitle(), super.plugin);
 
-        gui.mapComponent = mapComponent.copy();
-        gui.paperComponent = paperComponent.copy();
-        gui.outputComponent = outputComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.mapComponent = copyComponent(mapComponent);
+        gui.paperComponent = copyComponent(paperComponent);
+        gui.outputComponent = copyComponent(outputComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -125,6 +122,12 @@ public class CartographyTableGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(mapComponent, paperComponent, outputComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.InventoryBased;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.NamedGui;
@@ -57,7 +56,7 @@ public class CrafterGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (isDirty()) {
             this.inventory = createInventory();
             markChanges();
@@ -69,16 +68,13 @@ public class CrafterGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
 
         humanEntity.openInventory(getInventory());
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -86,8 +82,8 @@ public class CrafterGui extends NamedGui implements InventoryBased {
     public @NonNull CrafterGui copy() {
         final CrafterGui gui = new CrafterGui(getTitle(), super.plugin);
 
-        gui.inputComponent = inputComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.inputComponent = copyComponent(inputComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -98,6 +94,12 @@ public class CrafterGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inputComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.EnchantingTableInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.EnchantingTableInventoryImpl;
@@ -65,7 +64,7 @@ public class EnchantingTableGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Enchanting tables can only be opened by players");
         }
@@ -81,11 +80,7 @@ public class EnchantingTableGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -94,6 +89,8 @@ public class EnchantingTableGui extends NamedGui implements InventoryBased {
         humanEntity.openInventory(getInventory());
 
         enchantingTableInventory.openInventory((Player) humanEntity, getTitle(), getTopItems());
+
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -101,8 +98,8 @@ public class EnchantingTableGui extends NamedGui implements InventoryBased {
     public @NonNull EnchantingTableGui copy() {
         final EnchantingTableGui gui = new EnchantingTableGui(getTitle(), super.plugin);
 
-        gui.inputComponent = inputComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.inputComponent = copyComponent(inputComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -113,6 +110,12 @@ public class EnchantingTableGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inputComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.GrindstoneInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.GrindstoneInventoryImpl;
@@ -69,7 +68,7 @@ public class GrindstoneGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Grindstones can only be opened by players");
         }
@@ -86,11 +85,7 @@ public class GrindstoneGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -98,6 +93,7 @@ public class GrindstoneGui extends NamedGui implements InventoryBased {
         final Inventory inventory = grindstoneInventory.openInventory((Player) humanEntity, getTitle(), getTopItems());
 
         addInventory(inventory, this);
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -105,9 +101,9 @@ public class GrindstoneGui extends NamedGui implements InventoryBased {
     public @NonNull GrindstoneGui copy() {
         final GrindstoneGui gui = new GrindstoneGui(getTitle(), super.plugin);
 
-        gui.itemsComponent = itemsComponent.copy();
-        gui.resultComponent = resultComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.itemsComponent = copyComponent(itemsComponent);
+        gui.resultComponent = copyComponent(resultComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -118,6 +114,12 @@ public class GrindstoneGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(itemsComponent, resultComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -1,6 +1,6 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
+import dev.kokiriglade.popcorn.inventory.gui.GuiRegistry;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.MerchantInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.MerchantInventoryImpl;
@@ -25,8 +25,11 @@ import org.jetbrains.annotations.Contract;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -49,6 +52,11 @@ public class MerchantGui extends NamedGui {
      * The internal merchant inventory
      */
     private final @NonNull MerchantInventory merchantInventory = new MerchantInventoryImpl();
+    /**
+     * The trades replacing the trades of this gui for specific viewers, keyed by the index of the replaced trade
+     */
+    private final @NonNull Map<HumanEntity, Map<Integer, Map.Entry<MerchantRecipe, Integer>>> tradeOverrides =
+        new WeakHashMap<>();
     /**
      * The consumer that will be called once a players selects a trade listed
      * on the left side of the gui
@@ -74,6 +82,14 @@ public class MerchantGui extends NamedGui {
      * The level of this merchant. A value of zero indicates this villager doesn't have a level.
      */
     private int level = 0;
+    /**
+     * The amount of trades with a price difference
+     */
+    private int discountedTrades;
+    /**
+     * Whether the recipes of the merchant are out of date with the trades of this gui
+     */
+    private boolean recipesChanged;
 
     /**
      * Creates a merchant gui with the given title.
@@ -123,16 +139,28 @@ public class MerchantGui extends NamedGui {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player player)) {
             throw new IllegalArgumentException("Merchants can only be opened by players");
         }
 
         if (isDirty()) {
             this.merchant = Bukkit.createMerchant(getTitle());
+            this.recipesChanged = true;
             markChanges();
         }
 
+        if (this.recipesChanged) {
+            final List<MerchantRecipe> recipes = new ArrayList<>(this.trades.size());
+
+            for (final Map.Entry<MerchantRecipe, Integer> trade : this.trades) {
+                recipes.add(trade.getKey());
+            }
+
+            this.merchant.setRecipes(recipes);
+            this.recipesChanged = false;
+        }
+
         final InventoryView view = humanEntity.openMerchant(merchant, true);
 
         if (view == null) {
@@ -149,29 +177,21 @@ public class MerchantGui extends NamedGui {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
 
-        this.viewers.add(humanEntity);
-
-        if (this.experience >= 0 || this.level > 0) {
-            this.merchantInventory.sendMerchantOffers(player, this.trades, this.level, this.experience);
-
+        if (!addViewer(humanEntity)) {
             return;
         }
 
-        for (final Map.Entry<MerchantRecipe, Integer> trade : this.trades) {
-            if (trade.getValue() != 0) {
-                this.merchantInventory.sendMerchantOffers(player, this.trades, this.level, this.experience);
+        this.viewers.add(humanEntity);
 
-                break;
-            }
+        //the offers of the merchant itself have already been sent when opening it, they only lack these details
+        if (this.experience >= 0 || this.level > 0 || this.discountedTrades > 0
+            || this.tradeOverrides.containsKey(humanEntity)) {
+            sendMerchantOffers(player);
         }
     }
 
@@ -179,11 +199,13 @@ public class MerchantGui extends NamedGui {
     public @NonNull Gui copy() {
         final MerchantGui gui = new MerchantGui(getTitle(), super.plugin);
 
-        gui.inputComponent = inputComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.inputComponent = copyComponent(inputComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.experience = experience;
         gui.level = level;
+        gui.discountedTrades = discountedTrades;
+        gui.recipesChanged = true;
 
         for (final Map.Entry<MerchantRecipe, Integer> trade : trades) {
             final MerchantRecipe originalRecipe = trade.getKey();
@@ -216,6 +238,12 @@ public class MerchantGui extends NamedGui {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inputComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -238,11 +266,131 @@ public class MerchantGui extends NamedGui {
     public void addTrade(final @NonNull MerchantRecipe recipe, final int discount) {
         this.trades.add(new AbstractMap.SimpleImmutableEntry<>(recipe, -discount));
 
-        final List<MerchantRecipe> recipes = new ArrayList<>(this.merchant.getRecipes());
+        if (discount != 0) {
+            this.discountedTrades++;
+        }
+
+        markTradesChanged();
+    }
+
+    /**
+     * Replaces all trades of this gui with the specified recipes, without discounts. Unlike adding the recipes one by
+     * one, the merchant is only updated once, the next time this gui is shown or updated.
+     *
+     * @param recipes the recipes to set
+     * @since 3.2.0
+     */
+    public void setTrades(final @NonNull List<? extends @NonNull MerchantRecipe> recipes) {
+        this.trades.clear();
+
+        for (final MerchantRecipe recipe : recipes) {
+            this.trades.add(new AbstractMap.SimpleImmutableEntry<>(recipe, 0));
+        }
+
+        this.discountedTrades = 0;
 
-        recipes.add(recipe);
+        markTradesChanged();
+    }
 
-        this.merchant.setRecipes(recipes);
+    /**
+     * Marks the trades of this gui as changed. This is done automatically when trades are added or set, but has to be
+     * called manually when a recipe that was added before is modified, e.g. when its uses change. The offers of this
+     * gui are converted again and the merchant is updated the next time this gui is shown or updated.
+     *
+     * @since 3.2.0
+     */
+    public void markTradesChanged() {
+        this.recipesChanged = true;
+        this.merchantInventory.invalidateMerchantOffers();
+    }
+
+    /**
+     * Replaces the trade at the specified index for the specified viewer only, e.g. to show a personal price or stock.
+     * The discount is the difference between the old price and the new price, like for
+     * {@link #addTrade(MerchantRecipe, int)}. If the viewer is currently viewing this gui, the trades are sent to them
+     * again right away, without recreating the merchant.
+     * <p>
+     * Overrides only change what the viewer sees: trades are still performed according to the trades of this gui, so
+     * an override that for example raises a price should be enforced via {@link #setOnTopClick(Consumer)}. Overrides
+     * refer to trades by their index and are kept when the trades of this gui change.
+     * </p>
+     *
+     * @param viewer   the viewer to replace the trade for
+     * @param index    the index of the trade to replace
+     * @param recipe   the recipe shown instead of the trade
+     * @param discount the discount
+     * @throws IndexOutOfBoundsException when the index is outside the trades of this gui
+     * @since 3.2.0
+     */
+    public void setTradeOverride(final @NonNull HumanEntity viewer, final int index,
+                                 final @NonNull MerchantRecipe recipe, final int discount) {
+        if (index < 0 || index >= this.trades.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside the " + this.trades.size() + " trades");
+        }
+
+        this.tradeOverrides.computeIfAbsent(viewer, key -> new HashMap<>())
+            .put(index, new AbstractMap.SimpleImmutableEntry<>(recipe, -discount));
+
+        resendMerchantOffers(viewer);
+    }
+
+    /**
+     * Removes the replacement of the trade at the specified index for the specified viewer
+     *
+     * @param viewer the viewer to remove the replacement for
+     * @param index  the index of the replaced trade
+     * @since 3.2.0
+     */
+    public void removeTradeOverride(final @NonNull HumanEntity viewer, final int index) {
+        final Map<Integer, Map.Entry<MerchantRecipe, Integer>> overrides = this.tradeOverrides.get(viewer);
+
+        if (overrides == null || overrides.remove(index) == null) {
+            return;
+        }
+
+        if (overrides.isEmpty()) {
+            this.tradeOverrides.remove(viewer);
+        }
+
+        resendMerchantOffers(viewer);
+    }
+
+    /**
+     * Removes all trade replacements for the specified viewer
+     *
+     * @param viewer the viewer to remove the replacements for
+     * @since 3.2.0
+     */
+    public void clearTradeOverrides(final @NonNull HumanEntity viewer) {
+        if (this.tradeOverrides.remove(viewer) != null) {
+            resendMerchantOffers(viewer);
+        }
+    }
+
+    /**
+     * Sends the trades to the specified viewer again, if they currently have this gui open and the merchant is
+     * up-to-date with the trades
+     *
+     * @param viewer the viewer to send the trades to
+     * @since 3.2.0
+     */
+    private void resendMerchantOffers(final @NonNull HumanEntity viewer) {
+        if (viewer instanceof Player player && GuiRegistry.getGui(viewer) == this && !this.recipesChanged) {
+            sendMerchantOffers(player);
+        }
+    }
+
+    /**
+     * Sends the trades of this gui to the specified player, including the trades replaced for them
+     *
+     * @param player the player to send the trades to
+     * @since 3.2.0
+     */
+    private void sendMerchantOffers(final @NonNull Player player) {
+        final Map<Integer, Map.Entry<MerchantRecipe, Integer>> overrides = this.tradeOverrides.get(player);
+
+        this.merchantInventory.sendMerchantOffers(player, this.trades,
+            overrides == null ? Collections.emptyMap() : overrides, this.level, this.experience);
     }
 
     /**
@@ -293,12 +441,7 @@ public class MerchantGui extends NamedGui {
         addTrade(recipe, 0);
     }
 
-    /**
-     * Handles a human entity closing this gui.
-     *
-     * @param humanEntity the human entity who's closing this gui
-     * @since 3.0.0
-     */
+    @Override
     public void handleClose(final @NonNull HumanEntity humanEntity) {
         this.viewers.remove(humanEntity);
     }
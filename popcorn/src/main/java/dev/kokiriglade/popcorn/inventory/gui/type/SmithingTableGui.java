@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.SmithingTableInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.SmithingTableInventoryImpl;
@@ -75,7 +74,7 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Smithing tables can only be opened by players");
         }
@@ -92,11 +91,7 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -105,6 +100,10 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
 
         addInventory(inventory, this);
 
+        if (!addViewer(humanEntity)) {
+            return;
+        }
+
         this.viewers.add(humanEntity);
     }
 
@@ -113,9 +112,9 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
     public @NonNull SmithingTableGui copy() {
         final SmithingTableGui gui = new SmithingTableGui(getTitle(), super.plugin);
 
-        gui.inputComponent = inputComponent.copy();
-        gui.resultComponent = resultComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.inputComponent = copyComponent(inputComponent);
+        gui.resultComponent = copyComponent(resultComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -126,6 +125,12 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inputComponent, resultComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -160,12 +165,7 @@ public class SmithingTableGui extends NamedGui implements InventoryBased {
         return Bukkit.createInventory(this, InventoryType.SMITHING, getTitle());
     }
 
-    /**
-     * Handles a human entity closing this gui.
-     *
-     * @param humanEntity the human entity closing the gui
-     * @since 3.0.0
-     */
+    @Override
     public void handleClose(final @NonNull HumanEntity humanEntity) {
         this.viewers.remove(humanEntity);
     }
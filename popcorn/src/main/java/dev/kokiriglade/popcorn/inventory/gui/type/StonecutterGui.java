@@ -1,6 +1,5 @@
 package dev.kokiriglade.popcorn.inventory.gui.type;
 
-import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.StonecutterInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.StonecutterInventoryImpl;
@@ -69,7 +68,7 @@ public class StonecutterGui extends NamedGui implements InventoryBased {
     }
 
     @Override
-    public void show(final @NonNull HumanEntity humanEntity) {
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
         if (!(humanEntity instanceof Player)) {
             throw new IllegalArgumentException("Enchanting tables can only be opened by players");
         }
@@ -86,11 +85,7 @@ public class StonecutterGui extends NamedGui implements InventoryBased {
         getPlayerInventoryComponent().display();
 
         if (getPlayerInventoryComponent().hasItem()) {
-            final HumanEntityCache humanEntityCache = getHumanEntityCache();
-
-            if (!humanEntityCache.contains(humanEntity)) {
-                humanEntityCache.storeAndClear(humanEntity);
-            }
+            getHumanEntityCache().acquire(humanEntity, this);
 
             getPlayerInventoryComponent().placeItems(humanEntity.getInventory(), 0);
         }
@@ -99,6 +94,8 @@ public class StonecutterGui extends NamedGui implements InventoryBased {
         humanEntity.openInventory(getInventory());
 
         stonecutterInventory.openInventory((Player) humanEntity, getTitle(), getTopItems());
+
+        addViewer(humanEntity);
     }
 
     @Contract(pure = true)
@@ -106,9 +103,9 @@ public class StonecutterGui extends NamedGui implements InventoryBased {
     public @NonNull StonecutterGui copy() {
         final StonecutterGui gui = new StonecutterGui(getTitle(), super.plugin);
 
-        gui.inputComponent = inputComponent.copy();
-        gui.resultComponent = resultComponent.copy();
-        gui.playerInventoryComponent = playerInventoryComponent.copy();
+        gui.inputComponent = copyComponent(inputComponent);
+        gui.resultComponent = copyComponent(resultComponent);
+        gui.playerInventoryComponent = copyComponent(playerInventoryComponent);
 
         gui.setOnTopClick(this.onTopClick);
         gui.setOnBottomClick(this.onBottomClick);
@@ -119,6 +116,12 @@ public class StonecutterGui extends NamedGui implements InventoryBased {
         return gui;
     }
 
+    @Contract(pure = true)
+    @Override
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return List.of(inputComponent, resultComponent, playerInventoryComponent);
+    }
+
     @Override
     public void click(final @NonNull InventoryClickEvent event) {
         final int rawSlot = event.getRawSlot();
@@ -0,0 +1,108 @@
+package dev.kokiriglade.popcorn.inventory.gui.type.abstraction;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Sends the state of the container a player currently has open directly to that player, without changing the
+ * container on the server.
+ *
+ * @since 3.2.0
+ */
+public abstract class ContainerPackets {
+
+    /**
+     * Sends an item to the specified slot of the container the player currently has open. The item only exists for
+     * the player and will not be placed in the container. The server will not overwrite the sent item with the item
+     * currently in this slot, until the item in this slot changes. The slot is a raw slot, so the slots of the player's
+     * inventory follow after the slots of the top inventory.
+     *
+     * @param player the player to send the item to
+     * @param slot   the raw slot to send the item to
+     * @param item   the item to send
+     * @since 3.2.0
+     */
+    public abstract void sendSlot(@NonNull Player player, int slot, @Nullable ItemStack item);
+
+    /**
+     * Sends items to consecutive slots of the container the player currently has open, starting at the specified slot.
+     * The items only exist for the player, in the same way as for {@link #sendSlot(Player, int, ItemStack)}.
+     *
+     * @param player    the player to send the items to
+     * @param firstSlot the raw slot to send the first item to
+     * @param items     the items to send
+     * @since 3.2.0
+     */
+    public abstract void sendSlots(@NonNull Player player, int firstSlot, @Nullable ItemStack @NonNull [] items);
+
+    /**
+     * Gets the amount of raw slots of the container the player currently has open, including the slots of the player's
+     * inventory. Slots sent via {@link #sendSlot(Player, int, ItemStack)} must be lower than this amount.
+     *
+     * @param player the player to get the amount of slots for
+     * @return the amount of raw slots
+     * @since 3.2.0
+     */
+    public abstract int countSlots(@NonNull Player player);
+
+    /**
+     * Sends the entire contents of the container the player currently has open in a single packet, including the slots
+     * of the player's inventory and the item on the cursor. The server will consider these contents as known to the
+     * client, so the slots that changed since the last synchronization aren't sent again one by one. Items previously
+     * sent via {@link #sendSlot(Player, int, ItemStack)} are overwritten by the actual contents.
+     *
+     * @param player the player to send the contents to
+     * @since 3.2.0
+     */
+    public abstract void sendContents(@NonNull Player player);
+
+    /**
+     * Sends the value of a property of the container the player currently has open, such as the cook progress of a
+     * furnace. The value only exists for the player and will not be set in the container. The value is sent as a
+     * 16-bit integer, so larger values are truncated by the client.
+     *
+     * @param player   the player to send the value to
+     * @param property the id of the property
+     * @param value    the value of the property
+     * @since 3.2.0
+     */
+    public abstract void sendProperty(@NonNull Player player, int property, int value);
+
+    /**
+     * Changes the title of the container the player currently has open, without opening a new container. The client
+     * resets the contents of the container when its title changes, so the entire contents are sent again afterward, in
+     * the same way as for {@link #sendContents(Player)}. If the player has no container open, this does nothing.
+     *
+     * @param player the player to send the title to
+     * @param title  the new title
+     * @return true if the title was sent, false if the player has no container open
+     * @since 3.2.0
+     */
+    public abstract boolean sendTitle(@NonNull Player player, @NonNull Component title);
+
+    /**
+     * Opens a batch for the specified player. Until the batch is closed, the packets sent to this player by this class
+     * and by the internal inventories of the guis are collected, and once it's closed they are sent together in a
+     * single bundle sharing one state id, so the client doesn't render any intermediate states. Batches may be
+     * nested, in which case the packets are sent once the outermost batch is closed. Every call to this method must be
+     * followed by a call to {@link #endBatch(Player)}, preferably in a finally block.
+     *
+     * @param player the player to open the batch for
+     * @since 3.2.0
+     */
+    public abstract void beginBatch(@NonNull Player player);
+
+    /**
+     * Closes a batch opened by {@link #beginBatch(Player)}. If this was the outermost batch, the collected packets are
+     * sent.
+     *
+     * @param player the player to close the batch for
+     * @throws IllegalStateException if no batch is open for the player
+     * @since 3.2.0
+     */
+    public abstract void endBatch(@NonNull Player player);
+
+}
@@ -27,4 +27,29 @@ public abstract class MerchantInventory {
                                             @NonNull List<? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> trades,
                                             int level, int experience);
 
+    /**
+     * Sends the merchant offers to the player, combined with the merchants level and experience. The offers converted
+     * from the trades are cached and reused for every player, until {@link #invalidateMerchantOffers()} is called. The
+     * specified overrides replace the trades at their index for this player only.
+     *
+     * @param player     the player to send this to
+     * @param trades     the trades to send
+     * @param overrides  the trades replacing the trades at their index for this player
+     * @param level      the level of the merchant
+     * @param experience the experience of the merchant
+     * @since 3.2.0
+     */
+    public abstract void sendMerchantOffers(@NonNull Player player,
+                                            @NonNull List<? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> trades,
+                                            @NonNull Map<Integer, ? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> overrides,
+                                            int level, int experience);
+
+    /**
+     * Discards the cached merchant offers, so they are converted from the trades again the next time they are sent.
+     * This should be called whenever the trades change.
+     *
+     * @since 3.2.0
+     */
+    public abstract void invalidateMerchantOffers();
+
 }
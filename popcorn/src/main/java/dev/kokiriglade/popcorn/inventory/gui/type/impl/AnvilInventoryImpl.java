@@ -2,15 +2,16 @@ package dev.kokiriglade.popcorn.inventory.gui.type.impl;
 
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.AnvilInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.CustomInventoryUtil;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.PacketBatcher;
 import io.papermc.paper.adventure.PaperAdventure;
 import net.kyori.adventure.text.Component;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.NonNullList;
 import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetDataPacket;
 import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
 import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.network.ServerPlayerConnection;
 import net.minecraft.world.Container;
 import net.minecraft.world.inventory.AnvilMenu;
 import net.minecraft.world.inventory.ContainerLevelAccess;
@@ -84,11 +85,10 @@ public class AnvilInventoryImpl extends AnvilInventory {
         final NonNullList<ItemStack> nmsItems = CustomInventoryUtil.convertToNMSItems(items);
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = serverPlayer.containerMenu.containerId;
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
         final ItemStack cursor = CraftItemStack.asNMSCopy(player.getItemOnCursor());
-        final ServerPlayerConnection playerConnection = serverPlayer.connection;
 
-        playerConnection.send(new ClientboundContainerSetContentPacket(containerId, state, nmsItems, cursor));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetContentPacket(containerId, state, nmsItems, cursor));
     }
 
     @Override
@@ -96,9 +96,9 @@ public class AnvilInventoryImpl extends AnvilInventory {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = serverPlayer.containerMenu.containerId;
         final ItemStack nmsItem = CraftItemStack.asNMSCopy(item);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(containerId, state, 0, nmsItem));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 0, nmsItem));
     }
 
     @Override
@@ -106,9 +106,9 @@ public class AnvilInventoryImpl extends AnvilInventory {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = serverPlayer.containerMenu.containerId;
         final ItemStack nmsItem = CraftItemStack.asNMSCopy(item);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(containerId, state, 1, nmsItem));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 1, nmsItem));
     }
 
     @Override
@@ -126,9 +126,9 @@ public class AnvilInventoryImpl extends AnvilInventory {
     private void sendResultItem(final @NonNull Player player, final @NonNull ItemStack item) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = serverPlayer.containerMenu.containerId;
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(containerId, state, 2, item));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 2, item));
     }
 
     @Override
@@ -150,17 +150,17 @@ public class AnvilInventoryImpl extends AnvilInventory {
      */
     private void setCursor(final @NonNull Player player, final @NonNull ItemStack item) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(-1, state, -1, item));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(-1, state, -1, item));
     }
 
     @Override
     public void clearCursor(final @NonNull Player player) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
     }
 
     /**
@@ -218,8 +218,23 @@ public class AnvilInventoryImpl extends AnvilInventory {
                 AnvilInventoryImpl.super.observableText.set(name);
             }
 
-            //the client predicts the output result, so we broadcast the state again to override it
-            broadcastFullState();
+            //the client predicts the output result and its cost, so we send them again to override the prediction
+            if (this.player instanceof ServerPlayer serverPlayer) {
+                final ItemStack result = getSlot(2).getItem();
+
+                PacketBatcher.begin(serverPlayer);
+
+                try {
+                    final int state = PacketBatcher.nextStateId(serverPlayer);
+
+                    setRemoteSlot(2, result);
+                    PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(this.containerId, state, 2, result));
+                    PacketBatcher.send(serverPlayer, new ClientboundContainerSetDataPacket(this.containerId, 0, this.cost.get()));
+                } finally {
+                    PacketBatcher.end(serverPlayer);
+                }
+            }
+
             return true; //no idea what this is for
         }
 
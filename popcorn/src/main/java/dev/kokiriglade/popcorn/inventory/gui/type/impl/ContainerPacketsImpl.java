@@ -0,0 +1,145 @@
+package dev.kokiriglade.popcorn.inventory.gui.type.impl;
+
+import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.ContainerPackets;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.PacketBatcher;
+import io.papermc.paper.adventure.PaperAdventure;
+import net.kyori.adventure.text.Component;
+import net.minecraft.network.protocol.game.ClientboundContainerSetDataPacket;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import net.minecraft.world.item.ItemStack;
+import org.bukkit.craftbukkit.entity.CraftPlayer;
+import org.bukkit.craftbukkit.inventory.CraftItemStack;
+import org.bukkit.entity.Player;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Internal container packets
+ *
+ * @since 3.2.0
+ */
+public class ContainerPacketsImpl extends ContainerPackets {
+
+    @Override
+    public void sendSlot(final @NonNull Player player, final int slot, final org.bukkit.inventory.@Nullable ItemStack item) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+        final AbstractContainerMenu containerMenu = serverPlayer.containerMenu;
+
+        if (slot < 0 || slot >= containerMenu.slots.size()) {
+            throw new IllegalArgumentException("Slot " + slot + " does not exist in the open container");
+        }
+
+        //mark the current item as known to the client, so the server doesn't overwrite the sent item
+        containerMenu.setRemoteSlot(slot, containerMenu.getSlot(slot).getItem());
+
+        final int containerId = containerMenu.containerId;
+        final int state = PacketBatcher.nextStateId(serverPlayer);
+        final ItemStack nmsItem = CraftItemStack.asNMSCopy(item);
+
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, slot, nmsItem));
+    }
+
+    @Override
+    public void sendSlots(final @NonNull Player player, final int firstSlot,
+                          final org.bukkit.inventory.@Nullable ItemStack @NonNull [] items) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+        final AbstractContainerMenu containerMenu = serverPlayer.containerMenu;
+
+        if (firstSlot < 0 || firstSlot + items.length > containerMenu.slots.size()) {
+            throw new IllegalArgumentException("Slots " + firstSlot + " to " + (firstSlot + items.length - 1) +
+                " do not exist in the open container");
+        }
+
+        final int containerId = containerMenu.containerId;
+
+        PacketBatcher.begin(serverPlayer);
+
+        try {
+            for (int index = 0; index < items.length; index++) {
+                final int slot = firstSlot + index;
+
+                //mark the current item as known to the client, so the server doesn't overwrite the sent item
+                containerMenu.setRemoteSlot(slot, containerMenu.getSlot(slot).getItem());
+
+                final int state = PacketBatcher.nextStateId(serverPlayer);
+                final ItemStack nmsItem = CraftItemStack.asNMSCopy(items[index]);
+
+                PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, slot, nmsItem));
+            }
+        } finally {
+            PacketBatcher.end(serverPlayer);
+        }
+    }
+
+    @Override
+    public int countSlots(final @NonNull Player player) {
+        return getServerPlayer(player).containerMenu.slots.size();
+    }
+
+    @Override
+    public void sendContents(final @NonNull Player player) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+
+        //the contents are sent directly, so they have to arrive after the packets collected before them
+        PacketBatcher.flush(serverPlayer);
+
+        //this marks all slots as known to the client and sends them in one ClientboundContainerSetContentPacket
+        serverPlayer.containerMenu.sendAllDataToRemote();
+    }
+
+    @Override
+    public void sendProperty(final @NonNull Player player, final int property, final int value) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+        final int containerId = serverPlayer.containerMenu.containerId;
+
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetDataPacket(containerId, property, value));
+    }
+
+    @Override
+    public boolean sendTitle(final @NonNull Player player, final @NonNull Component title) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+        final AbstractContainerMenu containerMenu = serverPlayer.containerMenu;
+
+        //the player's own inventory is not a screen that can be opened
+        if (containerMenu == serverPlayer.inventoryMenu) {
+            return false;
+        }
+
+        final net.minecraft.network.chat.Component message = PaperAdventure.asVanilla(title);
+
+        //opening a screen with the id of the open container replaces the title, but keeps the container
+        PacketBatcher.send(serverPlayer, new ClientboundOpenScreenPacket(containerMenu.containerId, containerMenu.getType(), message));
+        containerMenu.setTitle(message);
+
+        sendContents(player);
+
+        return true;
+    }
+
+    @Override
+    public void beginBatch(final @NonNull Player player) {
+        PacketBatcher.begin(getServerPlayer(player));
+    }
+
+    @Override
+    public void endBatch(final @NonNull Player player) {
+        PacketBatcher.end(getServerPlayer(player));
+    }
+
+    /**
+     * Gets the server player associated to this player
+     *
+     * @param player the player to get the server player from
+     * @return the server player
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private @NonNull ServerPlayer getServerPlayer(final @NonNull Player player) {
+        return ((CraftPlayer) player).getHandle();
+    }
+
+}
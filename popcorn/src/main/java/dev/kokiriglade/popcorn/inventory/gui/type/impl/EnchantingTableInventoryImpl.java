@@ -1,6 +1,7 @@
 package dev.kokiriglade.popcorn.inventory.gui.type.impl;
 
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.EnchantingTableInventory;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.PacketBatcher;
 import io.papermc.paper.adventure.PaperAdventure;
 import net.minecraft.core.NonNullList;
 import net.minecraft.network.chat.Component;
@@ -8,7 +9,6 @@ import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
 import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
 import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.network.ServerPlayerConnection;
 import net.minecraft.world.Container;
 import net.minecraft.world.inventory.EnchantmentMenu;
 import net.minecraft.world.inventory.MenuType;
@@ -78,19 +78,18 @@ public class EnchantingTableInventoryImpl extends EnchantingTableInventory {
 
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = getContainerId(serverPlayer);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
         final ItemStack cursor = CraftItemStack.asNMSCopy(player.getItemOnCursor());
-        final ServerPlayerConnection playerConnection = getPlayerConnection(serverPlayer);
 
-        playerConnection.send(new ClientboundContainerSetContentPacket(containerId, state, nmsItems, cursor));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetContentPacket(containerId, state, nmsItems, cursor));
     }
 
     @Override
     public void clearCursor(final @NonNull Player player) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
     }
 
     /**
@@ -105,18 +104,6 @@ public class EnchantingTableInventoryImpl extends EnchantingTableInventory {
         return nmsPlayer.containerMenu.containerId;
     }
 
-    /**
-     * Gets the player connection for the specified player
-     *
-     * @param serverPlayer the player to get the player connection from
-     * @return the player connection
-     * @since 3.0.0
-     */
-    @Contract(pure = true)
-    private @NonNull ServerPlayerConnection getPlayerConnection(final @NonNull ServerPlayer serverPlayer) {
-        return serverPlayer.connection;
-    }
-
     /**
      * Gets the server player associated to this player
      *
@@ -12,6 +12,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.MerchantRecipe;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
 import java.util.List;
@@ -25,55 +26,136 @@ import java.util.Optional;
  */
 public class MerchantInventoryImpl extends MerchantInventory {
 
+    /**
+     * The offers converted from the trades, or null if they have to be converted again
+     */
+    private @Nullable MerchantOffers offers;
+
     @Override
     public void sendMerchantOffers(final @NonNull Player player,
                                    final @NonNull List<? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> trades,
                                    final int level, final int experience) {
+        sendMerchantOffers(player, createOffers(trades), level, experience);
+    }
+
+    @Override
+    public void sendMerchantOffers(final @NonNull Player player,
+                                   final @NonNull List<? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> trades,
+                                   final @NonNull Map<Integer, ? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> overrides,
+                                   final int level, final int experience) {
+        if (this.offers == null) {
+            this.offers = createOffers(trades);
+        }
+
+        if (overrides.isEmpty()) {
+            sendMerchantOffers(player, this.offers, level, experience);
+            return;
+        }
+
+        //the cached offers may still be referenced by packets that haven't been sent yet, so they are never modified
         final MerchantOffers offers = new MerchantOffers();
 
-        for (final Map.Entry<? extends MerchantRecipe, ? extends Integer> entry : trades) {
-            final MerchantRecipe recipe = entry.getKey();
-            final List<ItemStack> ingredients = recipe.getIngredients();
+        offers.addAll(this.offers);
+
+        for (final Map.Entry<Integer, ? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> override
+            : overrides.entrySet()) {
+            final int index = override.getKey();
 
-            if (ingredients.isEmpty()) {
-                throw new IllegalStateException("Merchant recipe has no ingredients");
+            if (index >= 0 && index < offers.size()) {
+                offers.set(index, createOffer(override.getValue().getKey(), override.getValue().getValue()));
             }
+        }
 
-            final ItemStack itemA = ingredients.get(0);
-            ItemStack itemB = null;
+        sendMerchantOffers(player, offers, level, experience);
+    }
 
-            if (ingredients.size() >= 2) {
-                itemB = ingredients.get(1);
-            }
+    @Override
+    public void invalidateMerchantOffers() {
+        this.offers = null;
+    }
 
-            final net.minecraft.world.item.ItemStack nmsItemA = CraftItemStack.asNMSCopy(itemA);
-            net.minecraft.world.item.ItemStack nmsItemB = net.minecraft.world.item.ItemStack.EMPTY;
-            final net.minecraft.world.item.ItemStack nmsItemResult = CraftItemStack.asNMSCopy(recipe.getResult());
+    /**
+     * Sends the specified offers to the player, combined with the merchants level and experience
+     *
+     * @param player     the player to send this to
+     * @param offers     the offers to send
+     * @param level      the level of the merchant
+     * @param experience the experience of the merchant
+     * @since 3.2.0
+     */
+    private void sendMerchantOffers(final @NonNull Player player, final @NonNull MerchantOffers offers,
+                                    final int level, final int experience) {
+        final ServerPlayer serverPlayer = getServerPlayer(player);
+        final int containerId = getContainerId(serverPlayer);
 
-            if (itemB != null) {
-                nmsItemB = CraftItemStack.asNMSCopy(itemB);
-            }
+        serverPlayer.sendMerchantOffers(containerId, offers, level, experience, true, false);
+    }
 
-            final ItemCost itemCostA = convertItemStackToItemCost(nmsItemA);
-            final ItemCost itemCostB = convertItemStackToItemCost(nmsItemB);
+    /**
+     * Converts the specified trades to merchant offers
+     *
+     * @param trades the trades with their price differences
+     * @return the merchant offers
+     * @since 3.2.0
+     */
+    @Contract(value = "_ -> new", pure = true)
+    private @NonNull MerchantOffers createOffers(
+        final @NonNull List<? extends Map.Entry<? extends MerchantRecipe, ? extends Integer>> trades
+    ) {
+        final MerchantOffers offers = new MerchantOffers();
 
-            final int uses = recipe.getUses();
-            final int maxUses = recipe.getMaxUses();
-            final int exp = recipe.getVillagerExperience();
-            final float multiplier = recipe.getPriceMultiplier();
+        for (final Map.Entry<? extends MerchantRecipe, ? extends Integer> entry : trades) {
+            offers.add(createOffer(entry.getKey(), entry.getValue()));
+        }
 
-            final MerchantOffer merchantOffer = new MerchantOffer(
-                itemCostA, Optional.of(itemCostB), nmsItemResult, uses, maxUses, exp, multiplier
-            );
-            merchantOffer.setSpecialPriceDiff(entry.getValue());
+        return offers;
+    }
 
-            offers.add(merchantOffer);
+    /**
+     * Converts the specified recipe to a merchant offer
+     *
+     * @param recipe    the recipe to convert
+     * @param priceDiff the difference between the new price and the original price
+     * @return the merchant offer
+     * @since 3.2.0
+     */
+    @Contract(value = "_, _ -> new", pure = true)
+    private @NonNull MerchantOffer createOffer(final @NonNull MerchantRecipe recipe, final int priceDiff) {
+        final List<ItemStack> ingredients = recipe.getIngredients();
+
+        if (ingredients.isEmpty()) {
+            throw new IllegalStateException("Merchant recipe has no ingredients");
         }
 
-        final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int containerId = getContainerId(serverPlayer);
+        final ItemStack itemA = ingredients.get(0);
+        ItemStack itemB = null;
 
-        serverPlayer.sendMerchantOffers(containerId, offers, level, experience, true, false);
+        if (ingredients.size() >= 2) {
+            itemB = ingredients.get(1);
+        }
+
+        final net.minecraft.world.item.ItemStack nmsItemA = CraftItemStack.asNMSCopy(itemA);
+        net.minecraft.world.item.ItemStack nmsItemB = net.minecraft.world.item.ItemStack.EMPTY;
+        final net.minecraft.world.item.ItemStack nmsItemResult = CraftItemStack.asNMSCopy(recipe.getResult());
+
+        if (itemB != null) {
+            nmsItemB = CraftItemStack.asNMSCopy(itemB);
+        }
+
+        final ItemCost itemCostA = convertItemStackToItemCost(nmsItemA);
+        final ItemCost itemCostB = convertItemStackToItemCost(nmsItemB);
+
+        final int uses = recipe.getUses();
+        final int maxUses = recipe.getMaxUses();
+        final int exp = recipe.getVillagerExperience();
+        final float multiplier = recipe.getPriceMultiplier();
+
+        final MerchantOffer merchantOffer = new MerchantOffer(
+            itemCostA, Optional.of(itemCostB), nmsItemResult, uses, maxUses, exp, multiplier
+        );
+        merchantOffer.setSpecialPriceDiff(priceDiff);
+
+        return merchantOffer;
     }
 
     /**
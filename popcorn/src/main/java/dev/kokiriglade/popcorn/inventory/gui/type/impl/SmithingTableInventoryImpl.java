@@ -2,6 +2,7 @@ package dev.kokiriglade.popcorn.inventory.gui.type.impl;
 
 import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.SmithingTableInventory;
 import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.CustomInventoryUtil;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.util.PacketBatcher;
 import io.papermc.paper.adventure.PaperAdventure;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.NonNullList;
@@ -10,7 +11,6 @@ import net.minecraft.network.protocol.game.ClientboundContainerSetContentPacket;
 import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
 import net.minecraft.network.protocol.game.ClientboundOpenScreenPacket;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.network.ServerPlayerConnection;
 import net.minecraft.world.Container;
 import net.minecraft.world.inventory.ContainerLevelAccess;
 import net.minecraft.world.inventory.MenuType;
@@ -87,11 +87,10 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
         final NonNullList<ItemStack> nmsItems = CustomInventoryUtil.convertToNMSItems(items);
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = getContainerId(serverPlayer);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
         final ItemStack nmsCursor = CraftItemStack.asNMSCopy(cursor);
-        final ServerPlayerConnection playerConnection = getPlayerConnection(serverPlayer);
 
-        playerConnection.send(new ClientboundContainerSetContentPacket(containerId, state, nmsItems, nmsCursor));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetContentPacket(containerId, state, nmsItems, nmsCursor));
     }
 
     @Override
@@ -99,9 +98,9 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final ItemStack nmsItem = CraftItemStack.asNMSCopy(item);
         final int containerId = getContainerId(serverPlayer);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(containerId, state, 0, nmsItem));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 0, nmsItem));
     }
 
     @Override
@@ -109,9 +108,9 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final ItemStack nmsItem = CraftItemStack.asNMSCopy(item);
         final int containerId = getContainerId(serverPlayer);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(containerId, state, 1, nmsItem));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 1, nmsItem));
     }
 
     @Override
@@ -132,9 +131,9 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
     @Override
     public void clearCursor(final @NonNull Player player) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(-1, state, -1, ItemStack.EMPTY));
     }
 
     /**
@@ -148,9 +147,9 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
     @Deprecated
     private void setCursor(final @NonNull Player player, final @NonNull ItemStack item) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(-1, state, -1, item));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(-1, state, -1, item));
     }
 
     /**
@@ -165,9 +164,9 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
     private void sendResultItem(final @NonNull Player player, final @NonNull ItemStack item) {
         final ServerPlayer serverPlayer = getServerPlayer(player);
         final int containerId = getContainerId(serverPlayer);
-        final int state = serverPlayer.containerMenu.incrementStateId();
+        final int state = PacketBatcher.nextStateId(serverPlayer);
 
-        getPlayerConnection(serverPlayer).send(new ClientboundContainerSetSlotPacket(containerId, state, 2, item));
+        PacketBatcher.send(serverPlayer, new ClientboundContainerSetSlotPacket(containerId, state, 2, item));
     }
 
     /**
@@ -184,20 +183,6 @@ public class SmithingTableInventoryImpl extends SmithingTableInventory {
         return nmsPlayer.containerMenu.containerId;
     }
 
-    /**
-     * Gets the player connection for the specified player
-     *
-     * @param serverPlayer the player to get the player connection from
-     * @return the player connection
-     * @since 3.0.0
-     * @deprecated no longer used internally
-     */
-    @Contract(pure = true)
-    @Deprecated
-    private @NonNull ServerPlayerConnection getPlayerConnection(final @NonNull ServerPlayer serverPlayer) {
-        return serverPlayer.connection;
-    }
-
     /**
      * Gets the server player associated to this player
      *
@@ -0,0 +1,190 @@
+package dev.kokiriglade.popcorn.inventory.gui.type.impl.util;
+
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.inventory.AbstractContainerMenu;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batches the container packets sent to a player. While a batch is open for a player, container packets sent via this
+ * class are collected instead of being sent, and once the outermost batch is closed they are sent together in a single
+ * {@link ClientboundBundlePacket}, so the client applies them at once instead of rendering every intermediate state.
+ * All packets in a batch share a single state id, so the state id of the container is only incremented once per batch.
+ * <p>
+ * Batches may be nested; packets are only sent once the outermost batch is closed. Without an open batch, packets are
+ * sent immediately. This class should only be used from the main thread.
+ * </p>
+ *
+ * @since 3.2.0
+ */
+public final class PacketBatcher {
+
+    /**
+     * The maximum amount of packets the client accepts in a single bundle
+     */
+    private static final int BUNDLE_SIZE_LIMIT = 4096;
+
+    /**
+     * The open batches, keyed by the player they belong to
+     */
+    private static final @NonNull Map<ServerPlayer, Batch> BATCHES = new IdentityHashMap<>();
+
+    /**
+     * A private constructor to prevent construction.
+     */
+    private PacketBatcher() {
+    }
+
+    /**
+     * Opens a batch for the specified player. Every call to this method must be followed by a call to
+     * {@link #end(ServerPlayer)}, preferably in a finally block.
+     *
+     * @param player the player to open the batch for
+     * @since 3.2.0
+     */
+    public static void begin(final @NonNull ServerPlayer player) {
+        BATCHES.computeIfAbsent(player, key -> new Batch()).depth++;
+    }
+
+    /**
+     * Closes a batch of the specified player. If this was the outermost batch, all collected packets are sent.
+     *
+     * @param player the player to close the batch for
+     * @throws IllegalStateException if no batch is open for the player
+     * @since 3.2.0
+     */
+    public static void end(final @NonNull ServerPlayer player) {
+        final Batch batch = BATCHES.get(player);
+
+        if (batch == null) {
+            throw new IllegalStateException("No batch is open for this player");
+        }
+
+        if (--batch.depth == 0) {
+            BATCHES.remove(player);
+            flush(player, batch);
+        }
+    }
+
+    /**
+     * Sends the packets collected so far for the specified player, without closing the batch. This should be called
+     * before packets are sent to the player directly, when those packets have to arrive after the collected ones. If no
+     * batch is open for the player, this does nothing.
+     *
+     * @param player the player to send the packets to
+     * @since 3.2.0
+     */
+    public static void flush(final @NonNull ServerPlayer player) {
+        final Batch batch = BATCHES.get(player);
+
+        if (batch != null) {
+            flush(player, batch);
+        }
+    }
+
+    /**
+     * Sends the specified packet to the player, or collects it if a batch is open for the player
+     *
+     * @param player the player to send the packet to
+     * @param packet the packet to send
+     * @since 3.2.0
+     */
+    public static void send(final @NonNull ServerPlayer player,
+                            final @NonNull Packet<? super ClientGamePacketListener> packet) {
+        final Batch batch = BATCHES.get(player);
+
+        if (batch == null) {
+            player.connection.send(packet);
+            return;
+        }
+
+        batch.packets.add(packet);
+    }
+
+    /**
+     * Gets the state id for the next container packet sent to the player. Outside a batch, this increments the state
+     * id of the container the player has open. Inside a batch, the state id is only incremented for the first packet
+     * and reused afterward, unless the container or its state id changed in the meantime.
+     *
+     * @param player the player the packet will be sent to
+     * @return the state id
+     * @since 3.2.0
+     */
+    public static int nextStateId(final @NonNull ServerPlayer player) {
+        final AbstractContainerMenu containerMenu = player.containerMenu;
+        final Batch batch = BATCHES.get(player);
+
+        if (batch == null) {
+            return containerMenu.incrementStateId();
+        }
+
+        if (batch.containerMenu != containerMenu || containerMenu.getStateId() != batch.stateId) {
+            batch.containerMenu = containerMenu;
+            batch.stateId = containerMenu.incrementStateId();
+        }
+
+        return batch.stateId;
+    }
+
+    /**
+     * Sends the collected packets of the specified batch, bundling them if there is more than one
+     *
+     * @param player the player to send the packets to
+     * @param batch  the batch of the player
+     * @since 3.2.0
+     */
+    private static void flush(final @NonNull ServerPlayer player, final @NonNull Batch batch) {
+        final List<Packet<? super ClientGamePacketListener>> packets = batch.packets;
+
+        if (packets.size() == 1) {
+            player.connection.send(packets.getFirst());
+        } else {
+            for (int start = 0; start < packets.size(); start += BUNDLE_SIZE_LIMIT) {
+                final int end = Math.min(start + BUNDLE_SIZE_LIMIT, packets.size());
+
+                player.connection.send(new ClientboundBundlePacket(new ArrayList<>(packets.subList(start, end))));
+            }
+        }
+
+        packets.clear();
+        batch.containerMenu = null;
+    }
+
+    /**
+     * The packets collected for a player
+     *
+     * @since 3.2.0
+     */
+    private static final class Batch {
+
+        /**
+         * The collected packets
+         */
+        private final @NonNull List<Packet<? super ClientGamePacketListener>> packets = new ArrayList<>();
+
+        /**
+         * The amount of times the batch has been opened without being closed
+         */
+        private int depth;
+
+        /**
+         * The container the state id was taken from, or null if no state id was taken yet
+         */
+        private @Nullable AbstractContainerMenu containerMenu;
+
+        /**
+         * The state id shared by the packets of this batch
+         */
+        private int stateId;
+
+    }
+
+}
@@ -1,25 +1,47 @@
 package dev.kokiriglade.popcorn.inventory.gui.type.util;
 
 import dev.kokiriglade.popcorn.inventory.HumanEntityCache;
+import dev.kokiriglade.popcorn.inventory.gui.DynamicGuiItem;
+import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
 import dev.kokiriglade.popcorn.inventory.gui.GuiListener;
+import dev.kokiriglade.popcorn.inventory.gui.GuiRegistry;
+import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiMetrics;
+import dev.kokiriglade.popcorn.inventory.gui.metrics.GuiOperation;
+import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.ContainerPackets;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.ContainerPacketsImpl;
 import dev.kokiriglade.popcorn.inventory.pane.Pane;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryEvent;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 /**
  * The base class of all GUIs
@@ -29,15 +51,17 @@ import java.util.function.Consumer;
 public abstract class Gui {
 
     /**
-     * A map containing the relations between inventories and their respective gui. This is needed because Bukkit and
-     * Spigot ignore inventory holders for beacons, brewing stands, dispensers, droppers, furnaces and hoppers. The
-     * inventory holder for beacons is already being set properly via NMS, but this contains the other inventory types.
+     * Used for sending per-viewer overlay items and container properties
      */
-    private static final @NonNull Map<Inventory, Gui> GUI_INVENTORIES = new WeakHashMap<>();
+    private static final @NonNull ContainerPackets CONTAINER_PACKETS = new ContainerPacketsImpl();
     /**
      * Whether listeners have been registered by some gui
      */
     private static boolean hasRegisteredListeners;
+    /**
+     * The amount of guis created so far, used to order guis by creation
+     */
+    private static final @NonNull AtomicLong CREATED_GUIS = new AtomicLong();
     /**
      * The plugin that owns this gui
      */
@@ -87,11 +111,74 @@ public abstract class Gui {
      * is used to indicate that inventory close events due to updating should be ignored.
      */
     boolean updating = false;
+    /**
+     * Whether {@link #update()} should only send the slots that have changed to the viewers, instead of showing the
+     * entire gui to every viewer again. This only has an effect on guis that support it, see {@link #updateContents()}.
+     */
+    private boolean incrementalUpdates = false;
+    /**
+     * Whether {@link #update()} should render this gui once and show it to all viewers at once, instead of rendering it
+     * for every viewer separately. This only has an effect on guis that support it, see {@link #showShared(List)}.
+     */
+    private boolean sharedView = false;
+    /**
+     * The per-viewer overlay items of this gui, by raw slot
+     */
+    private final @NonNull Map<Integer, Function<? super HumanEntity, ? extends @Nullable ItemStack>> overlays =
+        new HashMap<>();
+    /**
+     * The raw slots every viewer was last sent an overlay item in. Viewers are held weakly, so viewers that left don't
+     * have to be removed.
+     */
+    private final @NonNull Map<HumanEntity, Set<Integer>> sentOverlaySlots = new WeakHashMap<>();
+    /**
+     * Whether the player inventory area should only be rendered client-side. This only has an effect on guis that
+     * support it, see {@link #setVirtualPlayerInventory(boolean)}.
+     */
+    private boolean virtualPlayerInventory = false;
+    /**
+     * Whether this gui is a template, whose copies share its panes
+     */
+    private boolean template = false;
+    /**
+     * The rendered items of the player inventory area, in raw slot order, if it's rendered client-side only
+     */
+    private @Nullable ItemStack @Nullable [] virtualPlayerInventoryItems;
+    /**
+     * The raw slot of the first item of the player inventory area, if it's rendered client-side only
+     */
+    private int virtualPlayerInventorySlot;
+    /**
+     * The dynamic items rendered by this gui, which are rendered per viewer, or null if there are none
+     */
+    private @NonNull DynamicGuiItem<?> @Nullable [] dynamicItems;
+    /**
+     * The raw slots of the dynamic items, in the same order as the dynamic items
+     */
+    private int @Nullable [] dynamicItemSlots;
+    /**
+     * The per-viewer values of the container properties of this gui, by property
+     */
+    private final @NonNull Map<InventoryView.Property, ToIntFunction<? super HumanEntity>> properties =
+        new EnumMap<>(InventoryView.Property.class);
+    /**
+     * The property values last sent to every viewer. Viewers are held weakly, so viewers that left don't have to be
+     * removed.
+     */
+    private final @NonNull Map<HumanEntity, SentProperties> sentProperties = new WeakHashMap<>();
+    /**
+     * The task sending the changed property values to the viewers every tick, or null if it isn't running
+     */
+    private @Nullable BukkitTask propertyTask;
     /**
      * The parent gui. This gui will be navigated to once a player closes this gui. If this is null, the player will not
      * be redirected to another gui once they close this gui.
      */
     private @Nullable Gui parent;
+    /**
+     * The order in which this gui was created, relative to other guis
+     */
+    private final long creationIndex = CREATED_GUIS.getAndIncrement();
 
     /**
      * Constructs a new gui with the provided plugin.
@@ -119,23 +206,45 @@ public abstract class Gui {
      */
     @Contract(pure = true)
     public static @Nullable Gui getGui(final @NonNull Inventory inventory) {
-        return GUI_INVENTORIES.get(inventory);
+        return GuiRegistry.getGui(inventory);
     }
 
     /**
-     * Shows a gui to a player
+     * Shows a gui to a player. The built-in guis implement {@link #showTo(HumanEntity)} instead of overriding this
+     * method, so the operation is timed, see {@link GuiMetrics}. Guis overriding this method aren't timed.
      *
      * @param humanEntity the human entity to show the gui to
      * @since 3.0.0
      */
-    public abstract void show(final @NonNull HumanEntity humanEntity);
+    public void show(final @NonNull HumanEntity humanEntity) {
+        final GuiMetrics.Timer timer = GuiMetrics.start(getClass(), GuiOperation.SHOW);
+
+        try {
+            showTo(humanEntity);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Shows this gui to the specified human entity. This is called by {@link #show(HumanEntity)}, which records the
+     * timing of the operation. Guis must either implement this method or override {@link #show(HumanEntity)}.
+     *
+     * @param humanEntity the human entity to show the gui to
+     * @throws UnsupportedOperationException if this gui implements neither this method nor {@link #show(HumanEntity)}
+     * @since 3.2.0
+     */
+    protected void showTo(final @NonNull HumanEntity humanEntity) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't implement showing the gui");
+    }
 
     /**
      * Makes a copy of this gui and returns it. This makes a deep copy of the gui. This entails that the underlying
      * panes will be copied as per their {@link Pane#copy()} and miscellaneous data will be copied. The copy of this gui,
      * will however have no viewers even if this gui currently has viewers. With this, cache data for viewers will also
      * be non-existent for the copied gui. The original owning plugin of the gui is preserved, but the plugin will not
-     * be deeply copied. The returned gui will never be reference equal to the current gui.
+     * be deeply copied. The returned gui will never be reference equal to the current gui. If this gui is a template,
+     * the copy is a lightweight copy sharing the panes of this gui instead, see {@link #markAsTemplate()}.
      *
      * @return a copy of the gui
      * @since 3.0.0
@@ -143,6 +252,138 @@ public abstract class Gui {
     @Contract(pure = true)
     public abstract @NonNull Gui copy();
 
+    /**
+     * Marks this gui as a template. Copies made of a template via {@link #copy()} don't copy the panes and items of the
+     * template, but share them with the template instead. This makes copying a template cheap, which is useful when the
+     * same gui is shown to many players, each with their own copy. Since the panes are shared, a template must not be
+     * shown after it has been marked as a template, and once it has been copied, its panes and their items throw an
+     * {@link IllegalStateException} when they're modified, including changes such as switching pages or hiding items.
+     * A copy can take ownership of a shared pane before modifying it via {@link InventoryComponent#detachPane(Pane)},
+     * which replaces the shared pane in the copy by a copy of the pane. Copies of a template are not templates
+     * themselves.
+     *
+     * @since 3.2.0
+     */
+    public void markAsTemplate() {
+        this.template = true;
+    }
+
+    /**
+     * Gets whether this gui is a template
+     *
+     * @return true if this gui is a template, false otherwise
+     * @see #markAsTemplate()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isTemplate() {
+        return template;
+    }
+
+    /**
+     * Copies the specified inventory component of this gui for use in a copy of this gui. If this gui is a template,
+     * the returned component shares its panes with the specified component, otherwise it's a deep copy.
+     *
+     * @param inventoryComponent the inventory component to copy
+     * @return the copied inventory component
+     * @see #markAsTemplate()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    protected @NonNull InventoryComponent copyComponent(final @NonNull InventoryComponent inventoryComponent) {
+        return this.template ? inventoryComponent.copyShared() : inventoryComponent.copy();
+    }
+
+    /**
+     * Gets the inventory components of this gui. Every gui type in this library overrides this method; custom gui types
+     * that don't override it can't look up their panes and items by their unique id.
+     *
+     * @return the inventory components
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @NonNull List<@NonNull InventoryComponent> getInventoryComponents() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Finds the item with the specified unique id in the panes of this gui. This uses the
+     * {@link InventoryComponent#getIndex() indexes} of the inventory components, so it doesn't traverse the panes.
+     *
+     * @param uuid the unique id of the item
+     * @return the item, or null if this gui doesn't contain such an item
+     * @see GuiItem#getUUID()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable GuiItem findItem(final @NonNull UUID uuid) {
+        final List<InventoryComponent> inventoryComponents = getInventoryComponents();
+
+        for (int i = 0; i < inventoryComponents.size(); i++) {
+            final GuiItem item = inventoryComponents.get(i).getIndex().getItem(uuid);
+
+            if (item != null) {
+                return item;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the pane with the specified unique id in this gui, including child panes. This uses the
+     * {@link InventoryComponent#getIndex() indexes} of the inventory components, so it doesn't traverse the panes.
+     *
+     * @param uuid the unique id of the pane
+     * @return the pane, or null if this gui doesn't contain such a pane
+     * @see Pane#getUUID()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable Pane findPane(final @NonNull UUID uuid) {
+        final List<InventoryComponent> inventoryComponents = getInventoryComponents();
+
+        for (int i = 0; i < inventoryComponents.size(); i++) {
+            final Pane pane = inventoryComponents.get(i).getIndex().getPane(uuid);
+
+            if (pane != null) {
+                return pane;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Performs the specified action for every item in the panes of this gui, without allocating a snapshot of the
+     * items. The action must not add or remove panes or items.
+     *
+     * @param action the action to perform
+     * @since 3.2.0
+     */
+    public void forEachItem(final @NonNull Consumer<? super GuiItem> action) {
+        final List<InventoryComponent> inventoryComponents = getInventoryComponents();
+
+        for (int i = 0; i < inventoryComponents.size(); i++) {
+            inventoryComponents.get(i).getIndex().forEachItem(action);
+        }
+    }
+
+    /**
+     * Performs the specified action for every pane of this gui, including child panes, without allocating a snapshot
+     * of the panes. The action must not add or remove panes or items.
+     *
+     * @param action the action to perform
+     * @since 3.2.0
+     */
+    public void forEachPane(final @NonNull Consumer<? super Pane> action) {
+        final List<InventoryComponent> inventoryComponents = getInventoryComponents();
+
+        for (int i = 0; i < inventoryComponents.size(); i++) {
+            inventoryComponents.get(i).getIndex().forEachPane(action);
+        }
+    }
+
     /**
      * This should delegate the provided inventory click event to the right pane, which can then handle this click event
      * further. This should not call any internal click handlers, since those will already have been activated.
@@ -182,26 +423,614 @@ public abstract class Gui {
     public abstract @NonNull List<HumanEntity> getViewers();
 
     /**
-     * Update the gui for everyone
+     * Update the gui for everyone. If incremental updates are enabled via {@link #setIncrementalUpdates(boolean)} and
+     * this gui supports them, only the slots that have changed are sent to the viewers and the inventory will not be
+     * reopened. Otherwise, the gui will be shown to every viewer again. If the shared view is enabled via
+     * {@link #setSharedView(boolean)} and this gui supports it, the gui is rendered only once for all viewers.
      * @since 3.0.0
      */
     public void update() {
-        updating = true;
+        final GuiMetrics.Timer timer = GuiMetrics.start(getClass(), GuiOperation.UPDATE);
+
+        try {
+            if (incrementalUpdates && updateContents()) {
+                return;
+            }
+
+            updating = true;
+
+            final List<HumanEntity> viewers = getViewers();
+            final ItemStack[] cursors = new ItemStack[viewers.size()];
+
+            for (int index = 0; index < viewers.size(); index++) {
+                final HumanEntity viewer = viewers.get(index);
+
+                cursors[index] = viewer.getItemOnCursor();
+                viewer.setItemOnCursor(null); // TODO set to air if this fails
+            }
+
+            if (!sharedView || viewers.isEmpty() || !showShared(viewers)) {
+                for (final HumanEntity viewer : viewers) {
+                    show(viewer);
+                }
+            }
+
+            for (int index = 0; index < viewers.size(); index++) {
+                viewers.get(index).setItemOnCursor(cursors[index]);
+            }
+
+            if (!updating) {
+                throw new AssertionError("Gui#isUpdating became false before Gui#update finished");
+            }
+
+            updating = false;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Re-renders this gui and updates the contents of the inventory its viewers are currently viewing, only changing
+     * the slots whose items differ from the last render. The inventory will not be reopened. If this gui cannot be
+     * updated this way, for example because its inventory has to be recreated, this returns false and nothing will be
+     * changed. By default, guis do not support this and this method always returns false.
+     *
+     * @return true if the contents were updated, false if the gui has to be shown again instead
+     * @see #update()
+     * @since 3.2.0
+     */
+    protected boolean updateContents() {
+        return false;
+    }
+
+    /**
+     * Sets whether {@link #update()} should only send the slots that have changed to the viewers, instead of showing
+     * the entire gui to every viewer again. Changes made to the inventory by other means than this gui will not be
+     * reverted by an incremental update. Guis that do not support incremental updates will always be shown again.
+     *
+     * @param incrementalUpdates whether updates should be incremental
+     * @since 3.2.0
+     */
+    public void setIncrementalUpdates(final boolean incrementalUpdates) {
+        this.incrementalUpdates = incrementalUpdates;
+    }
+
+    /**
+     * Gets whether {@link #update()} only sends the slots that have changed to the viewers.
+     *
+     * @return true if updates are incremental, false otherwise
+     * @see #setIncrementalUpdates(boolean)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isIncrementalUpdates() {
+        return incrementalUpdates;
+    }
+
+    /**
+     * Shows this gui to all the specified human entities at once. The panes of this gui are rendered only once and the
+     * same contents are shown to every human entity, after which the overlays of this gui are sent to each of them, see
+     * {@link #setOverlay(int, Function)}. If this gui does not support showing a shared view, this returns false and
+     * nothing will be shown. By default, guis do not support this and this method always returns false.
+     *
+     * @param humanEntities the human entities to show this gui to
+     * @return true if this gui was shown, false if it has to be shown to every human entity separately instead
+     * @see #update()
+     * @since 3.2.0
+     */
+    protected boolean showShared(final @NonNull List<HumanEntity> humanEntities) {
+        return false;
+    }
+
+    /**
+     * Sets whether {@link #update()} should render this gui once and show it to all viewers at once, instead of
+     * rendering it for every viewer separately. Items that should differ per viewer can be shown with
+     * {@link #setOverlay(int, Function)}. Guis that do not support a shared view will always be rendered per viewer.
+     *
+     * @param sharedView whether viewers should share the rendered gui
+     * @since 3.2.0
+     */
+    public void setSharedView(final boolean sharedView) {
+        this.sharedView = sharedView;
+    }
+
+    /**
+     * Gets whether {@link #update()} renders this gui once and shows it to all viewers at once.
+     *
+     * @return true if viewers share the rendered gui, false otherwise
+     * @see #setSharedView(boolean)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isSharedView() {
+        return sharedView;
+    }
+
+    /**
+     * Sets an overlay for the specified raw slot. Every time this gui is shown or updated for a player, the overlay is
+     * applied to that player and the returned item is shown to only them in this slot, on top of the item rendered by
+     * the panes of this gui. When the overlay returns null, the rendered item is shown instead. The overlay item only
+     * exists for the player; clicking it is handled as a click on the rendered item underneath. The slot is a raw slot,
+     * so the slots of the player's inventory follow after the slots of the top inventory. If there was already an
+     * overlay for this slot, it will be replaced. Overlays are only sent by guis that support a shared view, see
+     * {@link #setSharedView(boolean)}. Overlays for slots that don't exist in the container a player has open are
+     * skipped.
+     *
+     * @param slot    the raw slot to show the overlay in
+     * @param overlay the function providing the item for each viewer
+     * @throws IllegalArgumentException if the slot is negative
+     * @since 3.2.0
+     */
+    public void setOverlay(final int slot, final @NonNull Function<? super HumanEntity, ? extends @Nullable ItemStack> overlay) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Slot must not be negative");
+        }
+
+        this.overlays.put(slot, overlay);
+    }
+
+    /**
+     * Removes the overlay of the specified raw slot. If there is no overlay for this slot, this method will silently
+     * do nothing. The overlay item is still visible to current viewers until this gui is updated.
+     *
+     * @param slot the raw slot to remove the overlay of
+     * @since 3.2.0
+     */
+    public void removeOverlay(final int slot) {
+        this.overlays.remove(slot);
+    }
+
+    /**
+     * Gets the overlays of this gui, by raw slot. The returned map is unmodifiable.
+     *
+     * @return the overlays
+     * @see #setOverlay(int, Function)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @NonNull Map<Integer, Function<? super HumanEntity, ? extends @Nullable ItemStack>> getOverlays() {
+        return Collections.unmodifiableMap(this.overlays);
+    }
+
+    /**
+     * Sets a container property, such as the cook progress of a furnace or the brew time of a brewing stand. While this
+     * gui is open, the value is computed for every viewer each tick and sent to them, but only when it differs from the
+     * value they were sent last, so progress bars can be animated without changing any slots. The property only exists
+     * for the viewers; the inventory itself is not changed. Values are sent as 16-bit integers, so larger values are
+     * truncated by the client. If there was already a value for this property, it will be replaced. The property should
+     * belong to the type of container this gui shows, otherwise the client ignores it or interprets it differently.
+     *
+     * @param property the property to set
+     * @param value    the function providing the value for each viewer
+     * @since 3.2.0
+     */
+    public void setProperty(final InventoryView.@NonNull Property property,
+                            final @NonNull ToIntFunction<? super HumanEntity> value) {
+        this.properties.put(property, value);
+
+        if (getViewerCount() > 0) {
+            startPropertyTask();
+        }
+    }
+
+    /**
+     * Sets a container property to the same value for every viewer. See {@link #setProperty(InventoryView.Property,
+     * ToIntFunction)} for how properties are sent.
+     *
+     * @param property the property to set
+     * @param value    the value of the property
+     * @since 3.2.0
+     */
+    public void setProperty(final InventoryView.@NonNull Property property, final int value) {
+        setProperty(property, viewer -> value);
+    }
+
+    /**
+     * Removes the value of the specified container property. If there is no value for this property, this method will
+     * silently do nothing. The last sent value stays visible to current viewers until they open another container.
+     *
+     * @param property the property to remove
+     * @since 3.2.0
+     */
+    public void removeProperty(final InventoryView.@NonNull Property property) {
+        this.properties.remove(property);
+    }
+
+    /**
+     * Gets the container properties of this gui. The returned map is unmodifiable.
+     *
+     * @return the properties
+     * @see #setProperty(InventoryView.Property, ToIntFunction)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @NonNull Map<InventoryView.Property, ToIntFunction<? super HumanEntity>> getProperties() {
+        return Collections.unmodifiableMap(this.properties);
+    }
+
+    /**
+     * Sends the container properties of this gui whose value changed to the specified human entity right away, instead
+     * of waiting for the next tick. All values are sent in a single bundle. If the human entity is not a player, this
+     * does nothing. Exceptions thrown by the value functions are caught and logged.
+     *
+     * @param humanEntity the human entity to send the properties to
+     * @see #setProperty(InventoryView.Property, ToIntFunction)
+     * @since 3.2.0
+     */
+    public void sendProperties(final @NonNull HumanEntity humanEntity) {
+        if (this.properties.isEmpty() || !(humanEntity instanceof Player player)) {
+            return;
+        }
+
+        final InventoryView view = humanEntity.getOpenInventory();
+        SentProperties sent = this.sentProperties.get(humanEntity);
+
+        //a newly opened container starts without any properties on the client
+        if (sent == null || sent.view.get() != view) {
+            sent = new SentProperties(view);
+            this.sentProperties.put(humanEntity, sent);
+        }
+
+        CONTAINER_PACKETS.beginBatch(player);
+
+        try {
+            for (final Map.Entry<InventoryView.Property, ToIntFunction<? super HumanEntity>> entry : this.properties.entrySet()) {
+                final InventoryView.Property property = entry.getKey();
+                final int value;
+
+                try {
+                    value = entry.getValue().applyAsInt(humanEntity);
+                } catch (final Throwable t) {
+                    this.plugin.getSLF4JLogger().error("Exception while computing property, property=%s"
+                        .formatted(property), t);
+                    continue;
+                }
+
+                final Integer previous = sent.values.put(property, value);
+
+                if (previous == null || previous != value) {
+                    CONTAINER_PACKETS.sendProperty(player, property.getId(), value);
+                }
+            }
+        } finally {
+            CONTAINER_PACKETS.endBatch(player);
+        }
+    }
+
+    /**
+     * Forgets the container property values sent to the specified human entity, so all of them are sent again. This
+     * should be called when the client has reset the properties of its open container, e.g. when its title changed, or
+     * when the server may have resent the real properties of the container, e.g. after a click.
+     *
+     * @param humanEntity the human entity to send the properties to again
+     * @see #sendProperties(HumanEntity)
+     * @since 3.2.0
+     */
+    public void resendProperties(final @NonNull HumanEntity humanEntity) {
+        this.sentProperties.remove(humanEntity);
+
+        sendProperties(humanEntity);
+    }
+
+    /**
+     * Starts the task sending the container properties to the viewers, if there are properties and it isn't running
+     * yet
+     *
+     * @since 3.2.0
+     */
+    private void startPropertyTask() {
+        if (this.propertyTask == null && !this.properties.isEmpty()) {
+            this.propertyTask = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tickProperties, 1L, 1L);
+        }
+    }
+
+    /**
+     * Sends the changed container properties to every viewer that has this gui open. Once there are no properties or
+     * no viewers anymore, the task is stopped until this gui is shown again.
+     *
+     * @since 3.2.0
+     */
+    private void tickProperties() {
+        boolean viewed = false;
 
         for (final HumanEntity viewer : getViewers()) {
-            final ItemStack cursor = viewer.getItemOnCursor();
-            viewer.setItemOnCursor(null); // TODO set to air if this fails
+            if (GuiRegistry.getGui(viewer) == this) {
+                viewed = true;
+
+                sendProperties(viewer);
+            }
+        }
+
+        if ((!viewed || this.properties.isEmpty()) && this.propertyTask != null) {
+            this.propertyTask.cancel();
+            this.propertyTask = null;
+        }
+    }
+
+    /**
+     * Sets whether the player inventory area of this gui should only be rendered client-side. Instead of storing and
+     * clearing the viewer's inventory and placing the items in it, the items are only sent to the viewer. The viewer's
+     * inventory is never touched, so it doesn't need to be restored and items picked up while viewing this gui end up
+     * in the viewer's inventory as usual. Since clicks on these items are clicks on the viewer's real items as far as
+     * the server is concerned, clicks and drags in the player inventory area are always cancelled, after the gui has
+     * handled them. Once the viewer closes this gui, their real inventory is sent to them again. This is only supported
+     * by {@link MergedGui}s: other guis always render the player inventory area in the viewer's inventory.
+     *
+     * @param virtualPlayerInventory whether the player inventory area should only be rendered client-side
+     * @since 3.2.0
+     */
+    public void setVirtualPlayerInventory(final boolean virtualPlayerInventory) {
+        this.virtualPlayerInventory = virtualPlayerInventory;
+    }
+
+    /**
+     * Gets whether the player inventory area of this gui is only rendered client-side.
+     *
+     * @return true if the player inventory area is only rendered client-side, false otherwise
+     * @see #setVirtualPlayerInventory(boolean)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isVirtualPlayerInventory() {
+        return virtualPlayerInventory;
+    }
+
+    /**
+     * Gets whether the player inventory area of this gui is currently rendered client-side only. This is the case if
+     * the virtual player inventory is enabled and the last render placed items in the player inventory area.
+     *
+     * @return true if the player inventory area is rendered client-side only, false otherwise
+     * @see #setVirtualPlayerInventory(boolean)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean hasVirtualPlayerInventoryItems() {
+        return this.virtualPlayerInventoryItems != null;
+    }
+
+    /**
+     * Sets the rendered items of the player inventory area that should be sent to viewers by
+     * {@link #sendClientSideItems(HumanEntity)}. The items of the component are laid out in raw slot order: the three
+     * rows of the player's inventory, followed by the hot bar.
+     *
+     * @param component the rendered player inventory area, or null if it's not rendered client-side
+     * @param firstSlot the raw slot of the first slot of the player inventory area
+     * @since 3.2.0
+     */
+    protected void setVirtualPlayerInventoryItems(final @Nullable InventoryComponent component, final int firstSlot) {
+        if (component == null) {
+            this.virtualPlayerInventoryItems = null;
+            return;
+        }
+
+        final int length = component.getLength();
+        final ItemStack[] items = new ItemStack[length * component.getHeight()];
+
+        for (int y = 0; y < component.getHeight(); y++) {
+            for (int x = 0; x < length; x++) {
+                items[y * length + x] = component.getItem(x, y);
+            }
+        }
+
+        this.virtualPlayerInventoryItems = items;
+        this.virtualPlayerInventorySlot = firstSlot;
+    }
+
+    /**
+     * Collects the dynamic items rendered into the specified inventory component, which are sent to viewers by
+     * {@link #sendClientSideItems(HumanEntity)}. The slots of the component must correspond to the raw slots of the
+     * inventory. This should be called every time the component has been rendered.
+     *
+     * @param component the rendered inventory component, or null if this gui doesn't have dynamic items
+     * @see DynamicGuiItem
+     * @since 3.2.0
+     */
+    protected void setDynamicItems(final @Nullable InventoryComponent component) {
+        int count = 0;
+
+        if (component != null) {
+            for (int slot = 0; slot < component.getSize(); slot++) {
+                if (component.getGuiItem(slot) instanceof DynamicGuiItem<?>) {
+                    count++;
+                }
+            }
+        }
+
+        if (count == 0) {
+            this.dynamicItems = null;
+            this.dynamicItemSlots = null;
+            return;
+        }
+
+        final DynamicGuiItem<?>[] items = new DynamicGuiItem<?>[count];
+        final int[] slots = new int[count];
+        int index = 0;
+
+        for (int slot = 0; slot < component.getSize(); slot++) {
+            if (component.getGuiItem(slot) instanceof DynamicGuiItem<?> item) {
+                items[index] = item;
+                slots[index] = slot;
+                index++;
+            }
+        }
+
+        this.dynamicItems = items;
+        this.dynamicItemSlots = slots;
+    }
+
+    /**
+     * Sends all items of this gui that only exist client-side to the specified human entity: the player inventory area
+     * if it's rendered client-side only, the items rendered per viewer by dynamic items and the overlays. This should
+     * be called after the contents of this gui have been placed and the inventory has been opened, and again whenever
+     * the server may have resent the container's contents, e.g. after a click. All items are sent in a single bundle.
+     * If the human entity is not a player, this does nothing.
+     *
+     * @param humanEntity the human entity to send the items to
+     * @see #setVirtualPlayerInventory(boolean)
+     * @see #setOverlay(int, Function)
+     * @since 3.2.0
+     */
+    public void sendClientSideItems(final @NonNull HumanEntity humanEntity) {
+        if (!(humanEntity instanceof Player player)) {
+            return;
+        }
+
+        //bundle all items, so the client renders them at once
+        CONTAINER_PACKETS.beginBatch(player);
+
+        try {
+            if (this.virtualPlayerInventoryItems != null) {
+                CONTAINER_PACKETS.sendSlots(player, this.virtualPlayerInventorySlot, this.virtualPlayerInventoryItems);
+            }
+
+            if (this.dynamicItems != null && this.dynamicItemSlots != null) {
+                for (int index = 0; index < this.dynamicItems.length; index++) {
+                    final DynamicGuiItem<?> item = this.dynamicItems[index];
+                    final ItemStack rendered;
+
+                    try {
+                        rendered = item.getRenderedItem(humanEntity);
+                    } catch (final Throwable t) {
+                        this.plugin.getSLF4JLogger().error("Exception while rendering dynamic item, slot=%s"
+                            .formatted(this.dynamicItemSlots[index]), t);
+                        continue;
+                    }
 
-            show(viewer);
+                    CONTAINER_PACKETS.sendSlot(player, this.dynamicItemSlots[index], rendered);
+                }
+            }
+
+            sendOverlays(humanEntity);
+        } finally {
+            CONTAINER_PACKETS.endBatch(player);
+        }
+    }
+
+    /**
+     * Checks whether this gui has items or container properties that only exist client-side, which need to be resent
+     * when the server resends the container's contents.
+     *
+     * @return true if this gui has client-side items or properties, false otherwise
+     * @see #sendClientSideItems(HumanEntity)
+     * @see #resendProperties(HumanEntity)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean hasClientSideItems() {
+        return this.virtualPlayerInventoryItems != null || this.dynamicItems != null || !this.overlays.isEmpty()
+            || !this.properties.isEmpty();
+    }
+
+    /**
+     * Sends the entire contents of the container the specified human entity has open in a single packet, instead of
+     * letting the server send every changed slot separately. Client-side items are overwritten by this, so they should
+     * be sent afterward. If the human entity is not a player, this does nothing.
+     *
+     * @param humanEntity the human entity to send the contents to
+     * @see #sendClientSideItems(HumanEntity)
+     * @since 3.2.0
+     */
+    protected void sendContents(final @NonNull HumanEntity humanEntity) {
+        if (humanEntity instanceof Player player) {
+            CONTAINER_PACKETS.sendContents(player);
+
+            //the contents include the properties of the server's container, which may overwrite ours
+            resendProperties(humanEntity);
+        }
+    }
+
+    /**
+     * Sends the overlays of this gui to the specified human entity. This should be called after the contents of this
+     * gui have been placed and the inventory has been opened. Slots that were sent an overlay item before, but whose
+     * overlay now returns null or has been removed, are sent their actual item again. If the human entity is not a
+     * player, this does nothing. Exceptions thrown by overlays are caught and logged, and overlays for slots that
+     * don't exist in the open container are skipped and logged.
+     *
+     * @param humanEntity the human entity to send the overlays to
+     * @since 3.2.0
+     */
+    protected void sendOverlays(final @NonNull HumanEntity humanEntity) {
+        if (!(humanEntity instanceof Player player)) {
+            return;
+        }
+
+        final Set<Integer> previousSlots = this.sentOverlaySlots.remove(humanEntity);
 
-            viewer.setItemOnCursor(cursor);
+        if (this.overlays.isEmpty() && previousSlots == null) {
+            return;
+        }
+
+        final int slotCount = CONTAINER_PACKETS.countSlots(player);
+        final Set<Integer> sentSlots = new HashSet<>();
+
+        for (final Map.Entry<Integer, Function<? super HumanEntity, ? extends @Nullable ItemStack>> entry : this.overlays.entrySet()) {
+            final int slot = entry.getKey();
+
+            if (slot >= slotCount) {
+                this.plugin.getSLF4JLogger().warn("Skipping overlay outside of the open container, slot=%s, slots=%s"
+                    .formatted(slot, slotCount));
+                continue;
+            }
+
+            final ItemStack item;
+
+            try {
+                item = entry.getValue().apply(humanEntity);
+            } catch (final Throwable t) {
+                this.plugin.getSLF4JLogger().error("Exception while rendering overlay, slot=%s".formatted(slot), t);
+                continue;
+            }
+
+            if (item != null) {
+                CONTAINER_PACKETS.sendSlot(player, slot, item);
+                sentSlots.add(slot);
+            }
         }
 
-        if (!updating) {
-            throw new AssertionError("Gui#isUpdating became false before Gui#update finished");
+        if (previousSlots != null) {
+            final InventoryView view = humanEntity.getOpenInventory();
+
+            for (final int slot : previousSlots) {
+                //client-side items have already been sent again, so only the actual items need to be restored
+                if (sentSlots.contains(slot) || slot >= slotCount || isRenderedClientSide(slot)) {
+                    continue;
+                }
+
+                CONTAINER_PACKETS.sendSlot(player, slot, view.getItem(slot));
+            }
         }
 
-        updating = false;
+        if (!sentSlots.isEmpty()) {
+            this.sentOverlaySlots.put(humanEntity, sentSlots);
+        }
+    }
+
+    /**
+     * Checks whether the specified raw slot is rendered client-side by {@link #sendClientSideItems(HumanEntity)},
+     * either as part of the player inventory area or as a dynamic item.
+     *
+     * @param slot the raw slot to check
+     * @return true if the slot is rendered client-side, false otherwise
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private boolean isRenderedClientSide(final int slot) {
+        final ItemStack[] virtualItems = this.virtualPlayerInventoryItems;
+
+        if (virtualItems != null && slot >= this.virtualPlayerInventorySlot
+            && slot < this.virtualPlayerInventorySlot + virtualItems.length) {
+            return true;
+        }
+
+        if (this.dynamicItemSlots != null) {
+            for (final int dynamicSlot : this.dynamicItemSlots) {
+                if (dynamicSlot == slot) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
     }
 
     /**
@@ -212,19 +1041,79 @@ public abstract class Gui {
      * @since 3.0.0
      */
     protected void addInventory(final @NonNull Inventory inventory, final @NonNull Gui gui) {
-        GUI_INVENTORIES.put(inventory, gui);
+        GuiRegistry.bind(inventory, gui);
+    }
+
+    /**
+     * Registers this gui as the gui the specified viewer currently has open, so events caused by this viewer are
+     * routed to this gui. This should be called by every gui once it has been shown to a viewer. If the viewer doesn't
+     * have an inventory of this gui open, e.g. because opening it was cancelled by another plugin, the viewer isn't
+     * registered and the player's inventory is released, in case this gui acquired it while being shown.
+     *
+     * @param humanEntity the viewer this gui was shown to
+     * @return true if the viewer was registered, false if the viewer doesn't have this gui open
+     * @see #ownsInventory(Inventory)
+     * @since 3.2.0
+     */
+    protected boolean addViewer(final @NonNull HumanEntity humanEntity) {
+        if (!ownsInventory(humanEntity.getOpenInventory().getTopInventory())) {
+            getHumanEntityCache().release(humanEntity, this);
+            return false;
+        }
+
+        GuiRegistry.register(humanEntity, this);
+
+        startPropertyTask();
+
+        return true;
     }
 
     /**
-     * Gets the human entity cache used for this gui
+     * Checks whether the specified inventory is an inventory of this gui: either it is bound to this gui, or this gui
+     * is its holder.
+     *
+     * @param inventory the inventory to check
+     * @return true if the inventory belongs to this gui, false otherwise
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean ownsInventory(final @NonNull Inventory inventory) {
+        return GuiRegistry.getGui(inventory) == this || inventory.getHolder(false) == this;
+    }
+
+    /**
+     * Gets the human entity cache used for this gui. All guis in a menu tree share the cache of the root gui, the gui
+     * reached by following the parents of this gui, so players' inventories can be handed off between a gui and its
+     * parent without being restored in between. If the parents form a cycle, e.g. two guis that are each other's
+     * parent, the root is the gui of that cycle that was created first, so all guis leading into the cycle share the
+     * same cache.
      *
      * @return the human entity cache
      * @see HumanEntityCache
+     * @see #setParent(Gui)
      * @since 3.0.0
      */
     @Contract(pure = true)
     public @NonNull HumanEntityCache getHumanEntityCache() {
-        return humanEntityCache;
+        final Set<Gui> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Gui root = this;
+
+        while (root.parent != null && visited.add(root)) {
+            root = root.parent;
+        }
+
+        //the walk stopped at a gui that was visited before, so it's part of a cycle
+        if (root.parent != null) {
+            final Gui cycleStart = root;
+
+            for (Gui gui = cycleStart.parent; gui != cycleStart; gui = gui.parent) {
+                if (gui.creationIndex < root.creationIndex) {
+                    root = gui;
+                }
+            }
+        }
+
+        return root.humanEntityCache;
     }
 
     /**
@@ -403,6 +1292,17 @@ public abstract class Gui {
         callCallback(onClose, event, "onClose");
     }
 
+    /**
+     * Handles a human entity closing this gui. This is called after the close handler, once the human entity no longer
+     * has this gui open, unless the gui was closed because it's being updated. By default, this does nothing.
+     *
+     * @param humanEntity the human entity closing the gui
+     * @see #setOnClose(Consumer)
+     * @since 3.2.0
+     */
+    public void handleClose(final @NonNull HumanEntity humanEntity) {
+    }
+
     /**
      * Calls the specified consumer (if it's not null) with the specified parameter,
      * catching and logging all exceptions it might throw.
@@ -419,6 +1319,8 @@ public abstract class Gui {
             return;
         }
 
+        final GuiMetrics.Timer timer = GuiMetrics.start(getClass(), GuiOperation.CALLBACK);
+
         try {
             callback.accept(event);
         } catch (final Throwable t) {
@@ -428,6 +1330,8 @@ public abstract class Gui {
             }
 
             this.plugin.getSLF4JLogger().error(message, t);
+        } finally {
+            timer.stop();
         }
     }
 
@@ -458,6 +1362,18 @@ public abstract class Gui {
         this.parent = gui;
     }
 
+    /**
+     * Gets the parent gui, which a player will be navigated to once they close this gui
+     *
+     * @return the parent gui, or null if this gui doesn't have a parent
+     * @see #setParent(Gui)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable Gui getParent() {
+        return parent;
+    }
+
     /**
      * Gets whether this gui is being updated, as invoked by {@link #update()}. This returns true if this is the case
      * and false otherwise.
@@ -470,4 +1386,34 @@ public abstract class Gui {
         return updating;
     }
 
+    /**
+     * The container property values sent to a viewer, together with the container they were sent to
+     *
+     * @since 3.2.0
+     */
+    private static final class SentProperties {
+
+        /**
+         * The container the values were sent to. The container refers to the viewer, so it's held weakly to not keep the
+         * viewer alive.
+         */
+        private final @NonNull WeakReference<InventoryView> view;
+
+        /**
+         * The sent values, by property
+         */
+        private final @NonNull Map<InventoryView.Property, Integer> values = new EnumMap<>(InventoryView.Property.class);
+
+        /**
+         * Creates new sent properties
+         *
+         * @param view the container the values are sent to
+         * @since 3.2.0
+         */
+        private SentProperties(final @NonNull InventoryView view) {
+            this.view = new WeakReference<>(view);
+        }
+
+    }
+
 }
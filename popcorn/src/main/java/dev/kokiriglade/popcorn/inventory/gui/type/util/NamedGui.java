@@ -1,6 +1,10 @@
 package dev.kokiriglade.popcorn.inventory.gui.type.util;
 
+import dev.kokiriglade.popcorn.inventory.gui.type.abstraction.ContainerPackets;
+import dev.kokiriglade.popcorn.inventory.gui.type.impl.ContainerPacketsImpl;
 import net.kyori.adventure.text.Component;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -13,6 +17,11 @@ import org.jetbrains.annotations.Contract;
  */
 public abstract class NamedGui extends Gui {
 
+    /**
+     * The container packets used to change the title of an open gui
+     */
+    private static final @NonNull ContainerPackets CONTAINER_PACKETS = new ContainerPacketsImpl();
+
     /**
      * The title of this gui
      */
@@ -23,6 +32,11 @@ public abstract class NamedGui extends Gui {
      */
     private boolean dirty = false;
 
+    /**
+     * Whether the title of the inventory is older than the title, because the title was changed in place
+     */
+    private boolean inventoryTitleOutdated = false;
+
     /**
      * Constructs a new gui with a title
      *
@@ -59,9 +73,12 @@ public abstract class NamedGui extends Gui {
     }
 
     /**
-     * Sets the title for this inventory.
+     * Sets the title for this inventory. If incremental updates are enabled and this gui supports them, the next
+     * {@link #update()} changes the title of the inventory the viewers have open in place, instead of creating a new
+     * inventory and opening it again.
      *
      * @param title the title
+     * @see #setIncrementalUpdates(boolean)
      * @since 3.0.0
      */
     public void setTitle(final @NonNull Component title) {
@@ -88,6 +105,68 @@ public abstract class NamedGui extends Gui {
      */
     public void markChanges() {
         this.dirty = false;
+        this.inventoryTitleOutdated = false;
+    }
+
+    /**
+     * Gets whether the inventory of this gui has to be recreated before it's shown, because its title is outdated.
+     * While the inventory has viewers and this gui isn't being updated, the inventory is kept, so the current viewers
+     * aren't left behind on the old inventory; the title is sent in place to the shown viewers instead, see
+     * {@link #sendTitle(HumanEntity)}.
+     *
+     * @return true if the inventory has to be recreated, false otherwise
+     * @since 3.2.0
+     */
+    protected boolean isInventoryOutdated() {
+        return (this.dirty || this.inventoryTitleOutdated) && (isUpdating() || getViewerCount() == 0);
+    }
+
+    /**
+     * Sends the title of this gui in place to the specified human entity, if the inventory they were shown has an
+     * outdated title. This should be called after the inventory has been opened and before client-side items are sent,
+     * since the contents and container properties are sent again as well. If the human entity is not a player, this
+     * does nothing.
+     *
+     * @param humanEntity the human entity to send the title to
+     * @see #isInventoryOutdated()
+     * @since 3.2.0
+     */
+    protected void sendTitle(final @NonNull HumanEntity humanEntity) {
+        if ((this.dirty || this.inventoryTitleOutdated) && humanEntity instanceof Player player
+            && CONTAINER_PACKETS.sendTitle(player, this.title)) {
+            resendProperties(humanEntity);
+        }
+    }
+
+    /**
+     * Sends the title of this gui to its viewers, if it changed since it was last sent. The title is changed in the
+     * inventory the viewers already have open, after which its contents and container properties are sent again, so
+     * client-side items have to be sent again as well. Afterward, this gui is no longer dirty. The inventory itself
+     * keeps its title, so viewers shown this gui later are sent the title in place as well, until the inventory is
+     * recreated once it has no viewers, see {@link #isInventoryOutdated()}. If the title can't be changed for every
+     * viewer, e.g. because a viewer is not a player, this returns false and the gui has to be shown again instead.
+     *
+     * @return true if the viewers see the current title, false if the gui has to be shown again
+     * @see #sendClientSideItems(HumanEntity)
+     * @since 3.2.0
+     */
+    protected boolean updateTitle() {
+        if (!this.dirty) {
+            return true;
+        }
+
+        for (final HumanEntity viewer : getViewers()) {
+            if (!(viewer instanceof Player player) || !CONTAINER_PACKETS.sendTitle(player, this.title)) {
+                return false;
+            }
+
+            resendProperties(viewer);
+        }
+
+        this.dirty = false;
+        this.inventoryTitleOutdated = true;
+
+        return true;
     }
 
 }
@@ -7,8 +7,8 @@ import dev.kokiriglade.popcorn.inventory.pane.util.Mask;
 import dev.kokiriglade.popcorn.inventory.pane.util.Slot;
 import dev.kokiriglade.popcorn.inventory.util.GeometryUtil;
 import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.ItemStack;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
 import java.util.ArrayList;
@@ -16,7 +16,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A pane for items that should be outlined
@@ -65,6 +64,11 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      */
     private @NonNull Mask mask;
 
+    /**
+     * The compiled layout of this pane, or null if it has to be compiled again
+     */
+    private @Nullable Layout layout;
+
     /**
      * Creates a new outline pane
      *
@@ -141,74 +145,124 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
         final int length = Math.min(this.length, maxLength);
         final int height = Math.min(this.height, maxHeight);
 
+        final Layout layout = getLayout(length, height);
+        final List<GuiItem> items = getItems();
+        final int itemCount = items.size();
+
+        final Slot slot = getSlot();
+        final int offsetX = slot.getX(maxLength) + paneOffsetX;
+        final int offsetY = slot.getY(maxLength) + paneOffsetY;
+
         int itemIndex = 0;
         int gapCount = 0;
 
-        final int size;
+        for (int line = 0; line < layout.lineCount() && itemCount > itemIndex; line++) {
+            final int lineStart = layout.lineStarts[line];
+            final int enabled = layout.lineStarts[line + 1] - lineStart;
 
-        if (getOrientation() == Orientation.HORIZONTAL) {
-            size = height;
-        } else if (getOrientation() == Orientation.VERTICAL) {
-            size = length;
-        } else {
-            throw new IllegalStateException("Unknown orientation '" + getOrientation() + "'");
-        }
+            final int count;
 
-        for (int vectorIndex = 0; vectorIndex < size && getItems().size() > itemIndex; vectorIndex++) {
-            final boolean[] maskLine;
-
-            if (getOrientation() == Orientation.HORIZONTAL) {
-                maskLine = mask.getRow(vectorIndex);
-            } else if (getOrientation() == Orientation.VERTICAL) {
-                maskLine = mask.getColumn(vectorIndex);
+            if (doesRepeat()) {
+                count = enabled;
             } else {
-                throw new IllegalStateException("Unknown orientation '" + getOrientation() + "'");
-            }
+                final int remainingPositions = gapCount + (itemCount - itemIndex - 1) * (getGap() + 1) + 1;
 
-            int enabled = 0;
-
-            for (final boolean bool : maskLine) {
-                if (bool) {
-                    enabled++;
-                }
+                count = Math.min(enabled, remainingPositions);
             }
 
-            final GuiItem[] items;
+            final int shift;
 
-            if (doesRepeat()) {
-                items = new GuiItem[enabled];
+            if (getAlignment() == Alignment.BEGIN) {
+                shift = 0;
+            } else if (getAlignment() == Alignment.CENTER) {
+                shift = (enabled - count) / 2;
             } else {
-                final int remainingPositions = gapCount + (getItems().size() - itemIndex - 1) * (getGap() + 1) + 1;
-
-                items = new GuiItem[Math.min(enabled, remainingPositions)];
+                throw new IllegalStateException("Unknown alignment '" + getAlignment() + "'");
             }
 
-            for (int index = 0; index < items.length; index++) {
+            for (int index = 0; index < count; index++) {
+                final GuiItem item;
+
                 if (gapCount == 0) {
-                    items[index] = getItems().get(itemIndex);
+                    item = items.get(itemIndex);
 
                     itemIndex++;
 
-                    if (doesRepeat() && itemIndex >= getItems().size()) {
+                    if (doesRepeat() && itemIndex >= itemCount) {
                         itemIndex = 0;
                     }
 
                     gapCount = getGap();
                 } else {
-                    items[index] = null;
+                    item = null;
 
                     gapCount--;
                 }
+
+                final int position = lineStart + shift + index;
+
+                if (item != null && layout.xs[position] >= 0 && item.isVisible()) {
+                    inventoryComponent.setItem(item, offsetX + layout.xs[position], offsetY + layout.ys[position]);
+                }
             }
+        }
+    }
 
-            int index;
+    /**
+     * Gets the compiled layout of this pane for the specified dimensions, compiling it if the cached layout is missing
+     * or was compiled for different dimensions.
+     *
+     * @param length the length the pane is displayed with
+     * @param height the height the pane is displayed with
+     * @return the layout
+     * @since 3.2.0
+     */
+    private @NonNull Layout getLayout(final int length, final int height) {
+        Layout layout = this.layout;
 
-            if (getAlignment() == Alignment.BEGIN) {
-                index = 0;
-            } else if (getAlignment() == Alignment.CENTER) {
-                index = -((enabled - items.length) / 2);
+        if (layout == null || layout.length != length || layout.height != height) {
+            layout = compileLayout(length, height);
+
+            this.layout = layout;
+        }
+
+        return layout;
+    }
+
+    /**
+     * Compiles the mask, orientation, flips and rotation of this pane into a layout for the specified dimensions.
+     *
+     * @param length the length the pane is displayed with
+     * @param height the height the pane is displayed with
+     * @return the compiled layout
+     * @since 3.2.0
+     */
+    private @NonNull Layout compileLayout(final int length, final int height) {
+        final int size;
+
+        if (getOrientation() == Orientation.HORIZONTAL) {
+            size = height;
+        } else if (getOrientation() == Orientation.VERTICAL) {
+            size = length;
+        } else {
+            throw new IllegalStateException("Unknown orientation '" + getOrientation() + "'");
+        }
+
+        final int[] lineStarts = new int[size + 1];
+        final int[] xs = new int[size * Math.max(mask.getLength(), mask.getHeight())];
+        final int[] ys = new int[xs.length];
+
+        int position = 0;
+
+        for (int vectorIndex = 0; vectorIndex < size; vectorIndex++) {
+            lineStarts[vectorIndex] = position;
+
+            final boolean[] maskLine;
+
+            if (getOrientation() == Orientation.HORIZONTAL) {
+                maskLine = mask.getRow(vectorIndex);
             } else {
-                throw new IllegalStateException("Unknown alignment '" + getAlignment() + "'");
+                maskLine = mask.getColumn(vectorIndex);
             }
 
             for (int opposingVectorIndex = 0; opposingVectorIndex < maskLine.length; opposingVectorIndex++) {
@@ -216,49 +270,42 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
                     continue;
                 }
 
-                if (index >= 0 && index < items.length && items[index] != null) {
-                    int x, y;
-
-                    if (getOrientation() == Orientation.HORIZONTAL) {
-                        x = opposingVectorIndex;
-                        y = vectorIndex;
-                    } else if (getOrientation() == Orientation.VERTICAL) {
-                        x = vectorIndex;
-                        y = opposingVectorIndex;
-                    } else {
-                        throw new IllegalStateException("Unknown orientation '" + getOrientation() + "'");
-                    }
+                int x, y;
 
-                    if (flipHorizontally) {
-                        x = length - x - 1;
-                    }
-
-                    if (flipVertically) {
-                        y = height - y - 1;
-                    }
-
-                    final Map.Entry<Integer, Integer> coordinates = GeometryUtil.processClockwiseRotation(x, y,
-                        length, height, rotation);
+                if (getOrientation() == Orientation.HORIZONTAL) {
+                    x = opposingVectorIndex;
+                    y = vectorIndex;
+                } else {
+                    x = vectorIndex;
+                    y = opposingVectorIndex;
+                }
 
-                    x = coordinates.getKey();
-                    y = coordinates.getValue();
+                if (flipHorizontally) {
+                    x = length - x - 1;
+                }
 
-                    if (x >= 0 && x < length && y >= 0 && y < height) {
-                        final Slot slot = getSlot();
+                if (flipVertically) {
+                    y = height - y - 1;
+                }
 
-                        final int finalRow = slot.getY(maxLength) + y + paneOffsetY;
-                        final int finalColumn = slot.getX(maxLength) + x + paneOffsetX;
+                final int rotatedX = GeometryUtil.rotateClockwiseX(x, y, length, height, rotation);
+                final int rotatedY = GeometryUtil.rotateClockwiseY(x, y, length, height, rotation);
 
-                        final GuiItem item = items[index];
-                        if (item.isVisible()) {
-                            inventoryComponent.setItem(item, finalColumn, finalRow);
-                        }
-                    }
+                if (rotatedX >= 0 && rotatedX < length && rotatedY >= 0 && rotatedY < height) {
+                    xs[position] = rotatedX;
+                    ys[position] = rotatedY;
+                } else {
+                    xs[position] = -1;
+                    ys[position] = -1;
                 }
 
-                index++;
+                position++;
             }
         }
+
+        lineStarts[size] = position;
+
+        return new Layout(length, height, lineStarts, Arrays.copyOf(xs, position), Arrays.copyOf(ys, position));
     }
 
     @Override
@@ -287,13 +334,7 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
 
         callOnClick(event);
 
-        final ItemStack itemStack = event.getCurrentItem();
-
-        if (itemStack == null) {
-            return false;
-        }
-
-        final GuiItem item = findMatchingItem(items, itemStack);
+        final GuiItem item = findClickedItem(inventoryComponent, slot, event.getCurrentItem());
 
         if (item == null) {
             return false;
@@ -326,6 +367,7 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
         outlinePane.flipVertically = flipVertically;
         outlinePane.mask = mask;
         outlinePane.alignment = alignment;
+        outlinePane.layout = layout;
 
         return outlinePane;
     }
@@ -338,7 +380,11 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void insertItem(final @NonNull GuiItem item, final int index) {
+        checkNotShared();
+
         items.add(index, item);
+
+        itemAdded(item);
     }
 
     /**
@@ -348,7 +394,11 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void addItem(final @NonNull GuiItem item) {
+        checkNotShared();
+
         items.add(item);
+
+        itemAdded(item);
     }
 
     /**
@@ -358,11 +408,21 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void removeItem(final @NonNull GuiItem item) {
-        items.remove(item);
+        checkNotShared();
+
+        if (items.remove(item)) {
+            itemRemoved(item);
+        }
     }
 
     @Override
     public void clear() {
+        checkNotShared();
+
+        for (final GuiItem item : items) {
+            itemRemoved(item);
+        }
+
         items.clear();
     }
 
@@ -375,15 +435,20 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void applyMask(final @NonNull Mask mask) {
+        checkNotShared();
+
         if (length != mask.getLength() || height != mask.getHeight()) {
             throw new IllegalArgumentException("Mask's dimension must be the same as the pane's dimension");
         }
 
         this.mask = mask;
+        this.layout = null;
     }
 
     @Override
     public void setLength(final int length) {
+        checkNotShared();
+
         super.setLength(length);
 
         applyMask(getMask().setLength(length));
@@ -391,6 +456,8 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
 
     @Override
     public void setHeight(final int height) {
+        checkNotShared();
+
         super.setHeight(height);
 
         applyMask(getMask().setHeight(height));
@@ -403,17 +470,25 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void align(final @NonNull Alignment alignment) {
+        checkNotShared();
+
         this.alignment = alignment;
     }
 
     @Override
     public void flipHorizontally(final boolean flipHorizontally) {
+        checkNotShared();
+
         this.flipHorizontally = flipHorizontally;
+        this.layout = null;
     }
 
     @Override
     public void flipVertically(final boolean flipVertically) {
+        checkNotShared();
+
         this.flipVertically = flipVertically;
+        this.layout = null;
     }
 
     /**
@@ -423,6 +498,8 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void setRepeat(final boolean repeat) {
+        checkNotShared();
+
         this.repeat = repeat;
     }
 
@@ -472,6 +549,8 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
      * @since 3.0.0
      */
     public void setGap(final int gap) {
+        checkNotShared();
+
         this.gap = gap;
     }
 
@@ -505,7 +584,10 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
 
     @Override
     public void setOrientation(final @NonNull Orientation orientation) {
+        checkNotShared();
+
         this.orientation = orientation;
+        this.layout = null;
     }
 
     @Contract(pure = true)
@@ -516,6 +598,8 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
 
     @Override
     public void setRotation(final int rotation) {
+        checkNotShared();
+
         if (length != height) {
             throw new UnsupportedOperationException("length and height are different");
         }
@@ -525,6 +609,7 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
         }
 
         this.rotation = rotation % 360;
+        this.layout = null;
     }
 
     @Contract(pure = true)
@@ -562,4 +647,71 @@ public class OutlinePane extends Pane implements Flippable, Orientable, Rotatabl
         CENTER
     }
 
+    /**
+     * The compiled geometry of an outline pane. For every line of the pane in the direction of its orientation, this
+     * contains the positions of the enabled slots of the mask, in order, after flipping and rotating them. A layout
+     * only depends on the mask, orientation, flips, rotation and dimensions of a pane, so it can be reused until one of
+     * those changes.
+     *
+     * @since 3.2.0
+     */
+    private static final class Layout {
+
+        /**
+         * The length this layout was compiled for
+         */
+        private final int length;
+
+        /**
+         * The height this layout was compiled for
+         */
+        private final int height;
+
+        /**
+         * The index of the first position of every line, followed by the total amount of positions
+         */
+        private final int @NonNull [] lineStarts;
+
+        /**
+         * The x coordinate of every position, or -1 if the position falls outside the pane
+         */
+        private final int @NonNull [] xs;
+
+        /**
+         * The y coordinate of every position, or -1 if the position falls outside the pane
+         */
+        private final int @NonNull [] ys;
+
+        /**
+         * Creates a new layout
+         *
+         * @param length     the length this layout was compiled for
+         * @param height     the height this layout was compiled for
+         * @param lineStarts the index of the first position of every line, followed by the total amount of positions
+         * @param xs         the x coordinate of every position
+         * @param ys         the y coordinate of every position
+         * @since 3.2.0
+         */
+        private Layout(final int length, final int height, final int @NonNull [] lineStarts, final int @NonNull [] xs,
+                       final int @NonNull [] ys) {
+            this.length = length;
+            this.height = height;
+            this.lineStarts = lineStarts;
+            this.xs = xs;
+            this.ys = ys;
+        }
+
+        /**
+         * Gets the amount of lines in this layout
+         *
+         * @return the amount of lines
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        private int lineCount() {
+            return this.lineStarts.length - 1;
+        }
+
+    }
+
 }
@@ -6,10 +6,12 @@ import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
 import dev.kokiriglade.popcorn.inventory.gui.InventoryComponent;
 import dev.kokiriglade.popcorn.inventory.gui.type.util.Gui;
 import dev.kokiriglade.popcorn.inventory.pane.util.Slot;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.checkerframework.checker.nullness.qual.NonNull;
@@ -20,10 +22,16 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -34,10 +42,18 @@ import java.util.stream.Collectors;
 public class PaginatedPane extends Pane {
 
     /**
-     * A set of panes for the different pages
+     * Creates the threads page sources are invoked on. Every load gets its own virtual thread, so blocking sources (e.g.
+     * database queries) don't hold up other loads. The threads end with their load, so there is nothing to shut down
+     * when the plugin is disabled.
+     * @since 3.2.0
+     */
+    private static final @NonNull ThreadFactory PAGE_LOADER = Thread.ofVirtual().name("popcorn-page-loader-", 0).factory();
+
+    /**
+     * The panes of the different pages
      * @since 3.0.0
      */
-    private @NonNull Map<Integer, List<Pane>> panes = new HashMap<>();
+    private final @NonNull PageStore pages = new PageStore();
 
     /**
      * The current page
@@ -45,6 +61,55 @@ public class PaginatedPane extends Pane {
      */
     private int page;
 
+    /**
+     * The source pages are loaded from, or null if pages are added directly
+     * @since 3.2.0
+     */
+    private @Nullable IntFunction<? extends @NonNull List<@NonNull GuiItem>> pageSource;
+
+    /**
+     * The amount of pages the page source provides
+     * @since 3.2.0
+     */
+    private int sourcePages;
+
+    /**
+     * The item shown in place of a page while it is being loaded, or null to show nothing
+     * @since 3.2.0
+     */
+    private @Nullable GuiItem placeholder;
+
+    /**
+     * The pages which are currently being loaded from the page source
+     * @since 3.2.0
+     */
+    private final @NonNull Set<Integer> loadingPages = new HashSet<>();
+
+    /**
+     * The panes shown in place of the current page while it is being loaded. These are kept apart from the pages, so
+     * they aren't reported to the indexes and their items can't be found as items of this pane.
+     * @since 3.2.0
+     */
+    private @NonNull List<Pane> placeholderPanes = Collections.emptyList();
+
+    /**
+     * Incremented for every page load, so results of loads that have been superseded can be discarded
+     * @since 3.2.0
+     */
+    private int loadGeneration;
+
+    /**
+     * The most recent load from the page source, which is cancelled once a newer load starts
+     * @since 3.2.0
+     */
+    private @Nullable FutureTask<? extends List<GuiItem>> pageLoad;
+
+    /**
+     * Whether the page source is invoked synchronously when a page is displayed, keeping only the current page
+     * @since 3.2.0
+     */
+    private boolean virtualized;
+
     /**
      * Creates a new paginated pane
      *
@@ -125,7 +190,9 @@ public class PaginatedPane extends Pane {
      * @since 3.0.0
      */
     public void setPage(final int page) {
-        if (!panes.containsKey(page)) {
+        checkNotShared();
+
+        if (pageSource != null ? page < 0 || page >= sourcePages : pages.get(page) == null) {
             throw new ArrayIndexOutOfBoundsException("page outside range");
         }
         this.page = page;
@@ -138,43 +205,274 @@ public class PaginatedPane extends Pane {
      * @since 3.0.0
      */
     public int getPages() {
-        return panes.size();
+        return pageSource == null ? pages.size() : sourcePages;
+    }
+
+    /**
+     * Sets the source pages of this pane are loaded from. The source receives the index of a page and returns the
+     * items on that page. Sources are invoked off the main thread, so they are free to block, but they should not
+     * interact with the Bukkit API. Pages are loaded when they are requested via {@link #loadPage(int, Gui, Plugin)}
+     * and are kept afterward, until the page source is replaced. Setting a page source removes all existing pages
+     * and discards all loads that are still in progress.
+     *
+     * @param pageSource the source of the pages, or null to remove the current page source
+     * @param pages      the amount of pages the source provides
+     * @throws IllegalArgumentException if the amount of pages is negative
+     * @since 3.2.0
+     */
+    public void setPageSource(final @Nullable IntFunction<? extends @NonNull List<@NonNull GuiItem>> pageSource,
+                              final int pages) {
+        checkNotShared();
+
+        if (pages < 0) {
+            throw new IllegalArgumentException("pages must not be negative");
+        }
+
+        this.pageSource = pageSource;
+        this.sourcePages = pageSource == null ? 0 : pages;
+        this.pages.clear();
+        this.loadingPages.clear();
+        this.loadGeneration++;
+        cancelPageLoad();
+        this.page = 0;
+        this.virtualized = false;
+    }
+
+    /**
+     * Gets the source pages of this pane are loaded from
+     *
+     * @return the page source, or null if this pane doesn't have one
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable IntFunction<? extends @NonNull List<@NonNull GuiItem>> getPageSource() {
+        return pageSource;
+    }
+
+    /**
+     * Sets the item shown on every slot of a page while that page is being loaded from the page source
+     *
+     * @param placeholder the placeholder item, or null to show nothing while loading
+     * @since 3.2.0
+     */
+    public void setPlaceholder(final @Nullable GuiItem placeholder) {
+        checkNotShared();
+
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * Gets the item shown on every slot of a page while that page is being loaded from the page source
+     *
+     * @return the placeholder item, or null if nothing is shown while loading
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable GuiItem getPlaceholder() {
+        return placeholder;
+    }
+
+    /**
+     * Switches to the specified page, loading it from the page source if it hasn't been loaded yet. While the page is
+     * loading, the placeholder item is shown. Once the page has been loaded, it is applied on the main thread and the
+     * gui is updated. If another page has been requested in the meantime, the load is cancelled, interrupting the page
+     * source, and the loaded page is discarded. If the plugin is disabled before the page could be applied, the page
+     * is discarded as well. This must be called from the main thread.
+     *
+     * @param page   the page to switch to
+     * @param gui    the gui to update once the page has been loaded
+     * @param plugin the plugin used to get back onto the main thread
+     * @return a future that completes with true once the page is shown, or with false if the loaded page was
+     * discarded, the page source failed or the plugin was disabled
+     * @throws IllegalStateException          if this pane doesn't have a page source
+     * @throws ArrayIndexOutOfBoundsException if the page is outside the range of the page source
+     * @since 3.2.0
+     */
+    public @NonNull CompletableFuture<Boolean> loadPage(final int page, final @NonNull Gui gui,
+                                                        final @NonNull Plugin plugin) {
+        checkNotShared();
+
+        final IntFunction<? extends List<GuiItem>> pageSource = this.pageSource;
+
+        if (pageSource == null) {
+            throw new IllegalStateException("This pane doesn't have a page source");
+        }
+
+        setPage(page);
+
+        final int generation = ++this.loadGeneration;
+
+        cancelPageLoad();
+
+        if (this.pages.get(page) != null) {
+            gui.update();
+
+            return CompletableFuture.completedFuture(true);
+        }
+
+        final List<Pane> placeholderPanes = new ArrayList<>(1);
+
+        if (this.placeholder != null) {
+            final OutlinePane placeholderPane = new OutlinePane(0, 0, this.length, this.height);
+
+            placeholderPane.addItem(this.placeholder);
+            placeholderPane.setRepeat(true);
+
+            placeholderPanes.add(placeholderPane);
+        }
+
+        this.placeholderPanes = placeholderPanes;
+        this.loadingPages.add(page);
+
+        gui.update();
+
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        final FutureTask<List<GuiItem>> load = new FutureTask<>(() -> pageSource.apply(page)) {
+            @Override
+            protected void done() {
+                try {
+                    Bukkit.getScheduler().runTask(plugin, () -> applyPage(this, page, generation, pageSource, gui,
+                        plugin, result));
+                } catch (final IllegalPluginAccessException exception) {
+                    //the plugin has been disabled, so there is no main thread task to apply the page anymore
+                    result.complete(false);
+                }
+            }
+        };
+
+        this.pageLoad = load;
+
+        PAGE_LOADER.newThread(load).start();
+
+        return result;
+    }
+
+    /**
+     * Applies a page loaded from the page source on the main thread, unless the load has been superseded
+     *
+     * @param load       the finished load
+     * @param page       the loaded page
+     * @param generation the load generation the load was started in
+     * @param pageSource the page source the page was loaded from
+     * @param gui        the gui to update once the page has been applied
+     * @param plugin     the plugin used to log failures
+     * @param result     the future to complete once the page has been applied or discarded
+     * @since 3.2.0
+     */
+    private void applyPage(final @NonNull FutureTask<? extends List<GuiItem>> load, final int page, final int generation,
+                           final @NonNull IntFunction<? extends List<GuiItem>> pageSource, final @NonNull Gui gui,
+                           final @NonNull Plugin plugin, final @NonNull CompletableFuture<Boolean> result) {
+        if (this.pageLoad == load) {
+            this.pageLoad = null;
+        }
+
+        if (pageSource != this.pageSource || generation != this.loadGeneration) {
+            //a newer load owns the page state now, only clean up if no one is waiting on this page anymore
+            if (pageSource == this.pageSource && this.page != page) {
+                this.loadingPages.remove(page);
+            }
+
+            result.complete(false);
+            return;
+        }
+
+        this.loadingPages.remove(page);
+
+        final List<GuiItem> items;
+
+        try {
+            items = load.get();
+        } catch (final CancellationException | ExecutionException | InterruptedException exception) {
+            final Throwable throwable = exception instanceof ExecutionException ? exception.getCause() : exception;
+
+            plugin.getSLF4JLogger().error("Exception while loading page %s".formatted(page), throwable);
+
+            gui.update();
+            result.complete(false);
+            return;
+        }
+
+        final OutlinePane loadedPane = new OutlinePane(0, 0, this.length, this.height);
+
+        for (final GuiItem item : items) {
+            loadedPane.addItem(item);
+        }
+
+        final List<Pane> loadedPanes = new ArrayList<>(1);
+
+        loadedPanes.add(loadedPane);
+
+        this.pages.put(page, loadedPanes);
+
+        gui.update();
+        result.complete(true);
+    }
+
+    /**
+     * Cancels the most recent load from the page source, interrupting the page source if it's still running. The
+     * future of the load completes with false once the cancellation has been processed on the main thread.
+     *
+     * @since 3.2.0
+     */
+    private void cancelPageLoad() {
+        if (this.pageLoad != null) {
+            this.pageLoad.cancel(true);
+            this.pageLoad = null;
+        }
+    }
+
+    /**
+     * Switches to the specified page, loading it from the page source if it hasn't been loaded yet.
+     *
+     * @param page the page to switch to
+     * @param gui  the gui to update once the page has been loaded
+     * @return a future that completes with true once the page is shown, or with false if the loaded page was
+     * discarded or the page source failed
+     * @see #loadPage(int, Gui, Plugin)
+     * @since 3.2.0
+     */
+    public @NonNull CompletableFuture<Boolean> loadPage(final int page, final @NonNull Gui gui) {
+        return loadPage(page, gui, JavaPlugin.getProvidingPlugin(PaginatedPane.class));
     }
 
     /**
      * Adds the specified pane to a new page. The new page will be at the index one after the highest indexed page
-     * currently in this paginated pane. If the highest index pane is {@code Integer.MAX_VALUE}, this method will throw
-     * an {@link ArithmeticException}. If this paginated pane has no pages, the index of the newly created page will
+     * currently in this paginated pane. If this paginated pane has no pages, the index of the newly created page will
      * be zero.
      *
      * @param pane the pane to add to a new page
-     * @throws ArithmeticException if the highest indexed page is the maximum value
      * @since 3.0.0
      */
     public void addPage(final @NonNull Pane pane) {
+        checkNotShared();
+
         final List<Pane> list = new ArrayList<>(1);
 
         list.add(pane);
 
-        if (this.panes.isEmpty()) {
-            this.panes.put(0, list);
+        this.pages.append(list);
+    }
 
-            return;
-        }
+    /**
+     * Adds the specified pages after the highest indexed page currently in this paginated pane, in order. Every element
+     * of the provided list contains the panes of a single page. This is considerably faster than adding the panes one
+     * by one, since the panes of every page are only sorted by their priority once.
+     *
+     * @param pages the panes of the pages to add
+     * @since 3.2.0
+     */
+    public void addPages(final @NonNull List<? extends @NonNull Collection<? extends @NonNull Pane>> pages) {
+        checkNotShared();
 
-        int highest = Integer.MIN_VALUE;
+        this.pages.ensureCapacity(this.pages.end() + pages.size());
 
-        for (final int page : this.panes.keySet()) {
-            if (page > highest) {
-                highest = page;
-            }
-        }
+        for (final Collection<? extends Pane> page : pages) {
+            final List<Pane> list = new ArrayList<>(page);
 
-        if (highest == Integer.MAX_VALUE) {
-            throw new ArithmeticException("Can't increment page index beyond its maximum value");
-        }
+            list.sort(Comparator.comparing(Pane::getPriority));
 
-        this.panes.put(highest + 1, list);
+            this.pages.append(list);
+        }
     }
 
     /**
@@ -182,16 +480,34 @@ public class PaginatedPane extends Pane {
      *
      * @param page the page to assign the pane to
      * @param pane the new pane
+     * @throws IllegalArgumentException if the page is negative
      * @since 3.0.0
      */
     public void addPane(final int page, final @NonNull Pane pane) {
-        if (!this.panes.containsKey(page)) {
-            this.panes.put(page, new ArrayList<>());
+        checkNotShared();
+
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+
+        List<Pane> panes = this.pages.get(page);
+
+        if (panes == null) {
+            panes = new ArrayList<>();
+
+            this.pages.put(page, panes);
+        }
+
+        //insert after all panes of the same or a lower priority, which keeps the list sorted without re-sorting it
+        int index = panes.size();
+
+        while (index > 0 && panes.get(index - 1).getPriority().compareTo(pane.getPriority()) > 0) {
+            index--;
         }
 
-        this.panes.get(page).add(pane);
+        panes.add(index, pane);
 
-        this.panes.get(page).sort(Comparator.comparing(Pane::getPriority));
+        paneAdded(pane);
     }
 
     /**
@@ -204,6 +520,8 @@ public class PaginatedPane extends Pane {
      * @since 3.0.0
      */
     public void populateWithItemStacks(final @NonNull List<@NonNull ItemStack> items, final @NonNull Plugin plugin) {
+        checkNotShared();
+
         //Don't do anything if the list is empty
         if (items.isEmpty()) {
             return;
@@ -250,6 +568,8 @@ public class PaginatedPane extends Pane {
      */
     @Contract("_ -> fail")
     public void populateWithGuiItems(final @NonNull List<GuiItem> items) {
+        checkNotShared();
+
         //Don't do anything if the list is empty
         if (items.isEmpty()) {
             return;
@@ -310,10 +630,74 @@ public class PaginatedPane extends Pane {
         populateWithNames(displayNames, material, JavaPlugin.getProvidingPlugin(PaginatedPane.class));
     }
 
+    /**
+     * Populates the PaginatedPane lazily from the provided data. Unlike {@link #populateWithGuiItems(List)}, no pages
+     * or items are created up front: only the items of the page that is being displayed are created, by applying the
+     * mapper to the elements on that page. When another page is displayed, the items of the previous page are
+     * discarded. This keeps the memory usage and the time it takes to open the gui constant, regardless of the size
+     * of the data.
+     * <p>
+     * The amount of pages is determined by the size of the data at the time this method is called. If the data
+     * changes afterward, this method should be called again. This replaces any existing pages and page source.
+     * </p>
+     *
+     * @param data   the data to populate the pane with
+     * @param mapper the function creating the item for an element of the data
+     * @param <T>    the type of the elements of the data
+     * @since 3.2.0
+     */
+    public <T> void populateWithDataSource(final @NonNull List<? extends T> data,
+                                           final @NonNull Function<? super T, ? extends @NonNull GuiItem> mapper) {
+        final int itemsPerPage = this.height * this.length;
+        final int pages = (int) Math.ceil(data.size() / (double) itemsPerPage);
+
+        setPageSource(page -> {
+            final int fromIndex = page * itemsPerPage;
+            final int toIndex = Math.min(fromIndex + itemsPerPage, data.size());
+            final List<GuiItem> items = new ArrayList<>(toIndex - fromIndex);
+
+            for (int index = fromIndex; index < toIndex; index++) {
+                items.add(mapper.apply(data.get(index)));
+            }
+
+            return items;
+        }, pages);
+
+        this.virtualized = true;
+    }
+
+    /**
+     * Creates the items of the current page from the page source, if this pane is virtualized and the current page
+     * hasn't been created yet. The items of all other pages are discarded.
+     *
+     * @since 3.2.0
+     */
+    private void materializePage() {
+        if (!this.virtualized || this.pageSource == null || this.pages.get(this.page) != null
+            || this.loadingPages.contains(this.page) || this.page >= this.sourcePages) {
+            return;
+        }
+
+        final OutlinePane pane = new OutlinePane(0, 0, this.length, this.height);
+
+        for (final GuiItem item : this.pageSource.apply(this.page)) {
+            pane.addItem(item);
+        }
+
+        final List<Pane> panes = new ArrayList<>(1);
+
+        panes.add(pane);
+
+        this.pages.clear();
+        this.pages.put(this.page, panes);
+    }
+
     @Override
     public void display(final @NonNull InventoryComponent inventoryComponent, final int paneOffsetX, final int paneOffsetY, final int maxLength,
                         final int maxHeight) {
-        final List<Pane> panes = this.panes.get(page);
+        materializePage();
+
+        final List<Pane> panes = getShownPanes();
 
         if (panes == null) {
             return;
@@ -363,7 +747,9 @@ public class PaginatedPane extends Pane {
 
         boolean success = false;
 
-        for (final Pane pane : new ArrayList<>(this.panes.getOrDefault(page, Collections.emptyList()))) {
+        final List<Pane> panes = getShownPanes();
+
+        for (final Pane pane : panes == null ? Collections.<Pane>emptyList() : new ArrayList<>(panes)) {
             if (!pane.isVisible()) {
                 continue;
             }
@@ -375,15 +761,74 @@ public class PaginatedPane extends Pane {
         return success;
     }
 
+    /**
+     * Gets the panes shown for the current page: the placeholder panes while the page is being loaded, otherwise the
+     * panes of the page itself
+     *
+     * @return the shown panes, or null if the current page doesn't exist
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private @Nullable List<Pane> getShownPanes() {
+        return this.loadingPages.contains(this.page) ? this.placeholderPanes : this.pages.get(this.page);
+    }
+
     @Contract(pure = true)
     @Override
     public @NonNull PaginatedPane copy() {
+        return copy(true);
+    }
+
+    /**
+     * Makes a copy of this pane that shares the panes of its pages with this pane. Only the pages themselves and the
+     * state of this pane, such as the current page and the page source, are copied, so the returned pane can switch
+     * pages and load pages without affecting this pane, while copying it takes time proportional to the amount of
+     * pages instead of the amount of items. The panes of the pages stay shared, so pages can only be changed by
+     * replacing their panes, e.g. via {@link #addPane(int, Pane)} or {@link #deletePage(int)}.
+     *
+     * @return a copy of this pane that isn't shared
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    @Override
+    public @NonNull PaginatedPane copyDetached() {
+        return copy(false);
+    }
+
+    @Override
+    public void markAsShared() {
+        super.markAsShared();
+
+        if (this.placeholder != null) {
+            this.placeholder.markAsShared();
+        }
+    }
+
+    /**
+     * Makes a copy of this pane
+     *
+     * @param deep whether the panes of the pages and the placeholder are copied as well, instead of being shared
+     * @return the copy
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private @NonNull PaginatedPane copy(final boolean deep) {
         final PaginatedPane paginatedPane = new PaginatedPane(getSlot(), length, height, getPriority());
 
-        for (final Map.Entry<Integer, List<Pane>> entry : panes.entrySet()) {
-            for (final Pane pane : entry.getValue()) {
-                paginatedPane.addPane(entry.getKey(), pane.copy());
+        for (int page = 0; page < pages.end(); page++) {
+            final List<Pane> panes = pages.get(page);
+
+            if (panes == null) {
+                continue;
+            }
+
+            final List<Pane> copies = new ArrayList<>(panes.size());
+
+            for (final Pane pane : panes) {
+                copies.add(deep ? pane.copy() : pane);
             }
+
+            paginatedPane.pages.put(page, copies);
         }
 
         paginatedPane.setVisible(isVisible());
@@ -393,6 +838,11 @@ public class PaginatedPane extends Pane {
 
         paginatedPane.page = page;
 
+        paginatedPane.pageSource = pageSource;
+        paginatedPane.sourcePages = sourcePages;
+        paginatedPane.placeholder = placeholder == null || !deep ? placeholder : placeholder.copy();
+        paginatedPane.virtualized = virtualized;
+
         return paginatedPane;
     }
 
@@ -406,24 +856,7 @@ public class PaginatedPane extends Pane {
      * @since 3.0.0
      */
     public void deletePage(final int page) {
-        if (this.panes.remove(page) == null) {
-            return;
-        }
-
-        final Map<Integer, List<Pane>> newPanes = new HashMap<>();
-
-        for (final Map.Entry<Integer, List<Pane>> entry : this.panes.entrySet()) {
-            final int index = entry.getKey();
-            final List<Pane> panes = entry.getValue();
-
-            if (index > page) {
-                newPanes.put(index - 1, panes);
-            } else {
-                newPanes.put(index, panes);
-            }
-        }
-
-        this.panes = newPanes;
+        this.pages.delete(page);
     }
 
     @Contract(pure = true)
@@ -431,10 +864,16 @@ public class PaginatedPane extends Pane {
     public @NonNull Collection<Pane> getPanes() {
         final Collection<Pane> panes = new HashSet<>();
 
-        this.panes.forEach((integer, p) -> {
+        for (int page = 0; page < this.pages.end(); page++) {
+            final List<Pane> p = this.pages.get(page);
+
+            if (p == null) {
+                continue;
+            }
+
             p.forEach(pane -> panes.addAll(pane.getPanes()));
             panes.addAll(p);
-        });
+        }
 
         return panes;
     }
@@ -454,7 +893,7 @@ public class PaginatedPane extends Pane {
      */
     @Contract(pure = true)
     public @NonNull Collection<Pane> getPanes(final int page) {
-        final Collection<Pane> panes = this.panes.get(page);
+        final Collection<Pane> panes = this.pages.get(page);
 
         if (panes == null) {
             throw new IllegalArgumentException("Invalid page");
@@ -471,7 +910,180 @@ public class PaginatedPane extends Pane {
 
     @Override
     public void clear() {
-        panes.clear();
+        checkNotShared();
+
+        pages.clear();
+        loadingPages.clear();
+    }
+
+    /**
+     * The pages of a paginated pane, stored contiguously by their index. Pages that don't exist are stored as null, so
+     * pages can be looked up and appended in constant time and deleting a page only shifts the pages after it. Panes
+     * of pages that are added or removed are reported to the indexes of the paginated pane.
+     *
+     * @since 3.2.0
+     */
+    private final class PageStore {
+
+        /**
+         * The panes of every page, or null for pages that don't exist. The last element is never null.
+         */
+        private final @NonNull ArrayList<@Nullable List<Pane>> pages = new ArrayList<>();
+
+        /**
+         * The amount of pages that exist
+         */
+        private int size;
+
+        /**
+         * Gets the panes of the specified page
+         *
+         * @param page the page
+         * @return the panes, or null if the page doesn't exist
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        private @Nullable List<Pane> get(final int page) {
+            return page >= 0 && page < this.pages.size() ? this.pages.get(page) : null;
+        }
+
+        /**
+         * Sets the panes of the specified page, creating the page if it doesn't exist yet
+         *
+         * @param page  the page
+         * @param panes the panes of the page
+         * @since 3.2.0
+         */
+        private void put(final int page, final @NonNull List<Pane> panes) {
+            while (this.pages.size() <= page) {
+                this.pages.add(null);
+            }
+
+            final List<Pane> previous = this.pages.set(page, panes);
+
+            if (previous == null) {
+                this.size++;
+            } else {
+                previous.forEach(PaginatedPane.this::paneRemoved);
+            }
+
+            panes.forEach(PaginatedPane.this::paneAdded);
+        }
+
+        /**
+         * Adds a page after the highest indexed page
+         *
+         * @param panes the panes of the page
+         * @since 3.2.0
+         */
+        private void append(final @NonNull List<Pane> panes) {
+            this.pages.add(panes);
+            this.size++;
+
+            panes.forEach(PaginatedPane.this::paneAdded);
+        }
+
+        /**
+         * Removes the specified page, without changing the indexes of other pages
+         *
+         * @param page the page
+         * @since 3.2.0
+         */
+        private void remove(final int page) {
+            final List<Pane> panes = get(page);
+
+            if (panes == null) {
+                return;
+            }
+
+            this.pages.set(page, null);
+            this.size--;
+
+            trim();
+
+            panes.forEach(PaginatedPane.this::paneRemoved);
+        }
+
+        /**
+         * Removes the specified page and decrements the indexes of all pages after it
+         *
+         * @param page the page
+         * @since 3.2.0
+         */
+        private void delete(final int page) {
+            final List<Pane> panes = get(page);
+
+            if (panes == null) {
+                return;
+            }
+
+            this.pages.remove(page);
+            this.size--;
+
+            trim();
+
+            panes.forEach(PaginatedPane.this::paneRemoved);
+        }
+
+        /**
+         * Removes all pages
+         *
+         * @since 3.2.0
+         */
+        private void clear() {
+            for (final List<Pane> panes : this.pages) {
+                if (panes != null) {
+                    panes.forEach(PaginatedPane.this::paneRemoved);
+                }
+            }
+
+            this.pages.clear();
+            this.size = 0;
+        }
+
+        /**
+         * Ensures the specified amount of pages can be stored without growing the backing list
+         *
+         * @param capacity the amount of pages
+         * @since 3.2.0
+         */
+        private void ensureCapacity(final int capacity) {
+            this.pages.ensureCapacity(capacity);
+        }
+
+        /**
+         * Gets the amount of pages that exist
+         *
+         * @return the amount of pages
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        private int size() {
+            return this.size;
+        }
+
+        /**
+         * Gets the index one after the highest indexed page
+         *
+         * @return the end index
+         * @since 3.2.0
+         */
+        @Contract(pure = true)
+        private int end() {
+            return this.pages.size();
+        }
+
+        /**
+         * Removes trailing pages that don't exist
+         *
+         * @since 3.2.0
+         */
+        private void trim() {
+            while (!this.pages.isEmpty() && this.pages.getLast() == null) {
+                this.pages.removeLast();
+            }
+        }
+
     }
 
 }
@@ -15,7 +15,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -56,6 +61,20 @@ public abstract class Pane {
      * The priority of the pane, determines when it will be rendered
      */
     private @NonNull Priority priority;
+    /**
+     * The indexes this pane is part of, or null if it isn't part of any index. Indexes are held weakly, so an index
+     * that is no longer used doesn't have to be removed from its panes.
+     */
+    private @Nullable Set<PaneIndex> indexes;
+    /**
+     * The items of this pane, mapped to the amount of times they were added, so it can be checked in constant time
+     * whether an item belongs to this pane
+     */
+    private final @NonNull Map<GuiItem, Integer> ownedItems = new IdentityHashMap<>();
+    /**
+     * Whether this pane is shared by a template gui and its copies, in which case it must not be modified
+     */
+    private boolean shared;
 
     /**
      * Constructs a new default pane
@@ -190,6 +209,48 @@ public abstract class Pane {
         return null;
     }
 
+    /**
+     * Finds the item of this pane that was clicked on. The item is first resolved from the dispatch table that the
+     * inventory component built during its last render, see {@link InventoryComponent#getGuiItem(int)}. When a gui
+     * item was rendered in the specified slot, it is only returned if it belongs to this pane; otherwise null is
+     * returned. Items added through {@link #itemAdded(GuiItem)} are recognized in constant time, other items, e.g.
+     * items added to a list returned by {@link #getItems()}, are searched for by reference in the items of this pane.
+     * The item meta of the clicked item is not accessed in this case. Only when no gui item was rendered in the
+     * specified slot, this falls back to {@link #findMatchingItem(Collection, ItemStack)} with the items of this pane
+     * and the provided item stack.
+     *
+     * @param inventoryComponent the inventory component in which was clicked
+     * @param slot               the slot that was clicked in, relative to the inventory component
+     * @param item               the item that was clicked on, or null if there is no such item
+     * @return the found {@link GuiItem} or null if none was found
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    protected @Nullable GuiItem findClickedItem(final @NonNull InventoryComponent inventoryComponent, final int slot,
+                                                final @Nullable ItemStack item) {
+        final GuiItem rendered = inventoryComponent.getGuiItem(slot);
+
+        if (rendered != null) {
+            if (this.ownedItems.containsKey(rendered)) {
+                return rendered;
+            }
+
+            for (final GuiItem guiItem : getItems()) {
+                if (guiItem == rendered) {
+                    return rendered;
+                }
+            }
+
+            return null;
+        }
+
+        if (item == null) {
+            return null;
+        }
+
+        return findMatchingItem(getItems(), item);
+    }
+
     /**
      * Creates a pane which displays as a border around the outside of the pane consisting of the provided item. The
      * slot, length and height parameters are used for the respective properties of the pane. If either the length or
@@ -288,6 +349,75 @@ public abstract class Pane {
         throw new UnsupportedOperationException("The implementing pane hasn't overridden the copy method");
     }
 
+    /**
+     * Makes a copy of this pane that can be modified without affecting this pane, for a gui copied from a template
+     * that takes ownership of a shared pane. By default, this makes a deep copy as per {@link #copy()}. Panes whose
+     * state is mostly kept in their child panes may share those child panes with the returned pane instead, in which
+     * case the child panes stay shared and can't be modified; only the state of the returned pane itself can.
+     *
+     * @return a copy of this pane that isn't shared
+     * @see InventoryComponent#detachPane(Pane)
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @NonNull Pane copyDetached() {
+        return copy();
+    }
+
+    /**
+     * Marks this pane, its child panes and all of their items as shared by a template gui and its copies. Shared panes
+     * can't be modified anymore, since changes would show up for every copy of the template; a copy has to take
+     * ownership of the pane instead, see {@link InventoryComponent#detachPane(Pane)}. Panes and items that are added
+     * to a shared pane internally, e.g. pages that are loaded, are shared as well. Copies of a shared pane are not
+     * shared.
+     *
+     * @see InventoryComponent#copyShared()
+     * @since 3.2.0
+     */
+    public void markAsShared() {
+        if (this.shared) {
+            return;
+        }
+
+        this.shared = true;
+
+        for (final Pane pane : getPanes()) {
+            pane.markAsShared();
+        }
+
+        for (final GuiItem item : getItems()) {
+            item.markAsShared();
+        }
+    }
+
+    /**
+     * Gets whether this pane is shared by a template gui and its copies
+     *
+     * @return true if this pane is shared, false otherwise
+     * @see #markAsShared()
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Throws if this pane is shared, so it can't be modified. This must be called by subclasses before they modify
+     * their state in a method that is part of their public api.
+     *
+     * @throws IllegalStateException if this pane is shared
+     * @see #markAsShared()
+     * @since 3.2.0
+     */
+    protected void checkNotShared() {
+        if (this.shared) {
+            throw new IllegalStateException(
+                "This pane is shared by a template gui, detach it via InventoryComponent#detachPane first"
+            );
+        }
+    }
+
     /**
      * Returns the length of this pane
      *
@@ -306,6 +436,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setLength(final int length) {
+        checkNotShared();
+
         this.length = length;
     }
 
@@ -327,6 +459,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setHeight(final int height) {
+        checkNotShared();
+
         this.height = height;
     }
 
@@ -341,6 +475,119 @@ public abstract class Pane {
         return uuid;
     }
 
+    /**
+     * Reports that the specified item was added to this pane, so it's added to every index this pane is part of and
+     * clicks on it are dispatched to this pane. If this pane is shared, the item is marked as shared as well. This must
+     * be called by subclasses whenever they add an item.
+     *
+     * @param item the item that was added
+     * @see PaneIndex
+     * @since 3.2.0
+     */
+    protected void itemAdded(final @NonNull GuiItem item) {
+        this.ownedItems.merge(item, 1, Integer::sum);
+
+        if (this.shared) {
+            item.markAsShared();
+        }
+
+        if (this.indexes == null) {
+            return;
+        }
+
+        for (final PaneIndex index : this.indexes) {
+            index.addItem(item);
+        }
+    }
+
+    /**
+     * Reports that the specified item was removed from this pane, so it's removed from every index this pane is part
+     * of and clicks on it are no longer dispatched to this pane. This must be called by subclasses whenever they remove
+     * an item.
+     *
+     * @param item the item that was removed
+     * @see PaneIndex
+     * @since 3.2.0
+     */
+    protected void itemRemoved(final @NonNull GuiItem item) {
+        this.ownedItems.computeIfPresent(item, (key, count) -> count == 1 ? null : count - 1);
+
+        if (this.indexes == null) {
+            return;
+        }
+
+        for (final PaneIndex index : this.indexes) {
+            index.removeItem(item);
+        }
+    }
+
+    /**
+     * Reports that the specified child pane was added to this pane, so it's added to every index this pane is part of.
+     * If this pane is shared, the child pane is marked as shared as well. This must be called by subclasses whenever
+     * they add a child pane.
+     *
+     * @param pane the child pane that was added
+     * @see PaneIndex
+     * @since 3.2.0
+     */
+    protected void paneAdded(final @NonNull Pane pane) {
+        if (this.shared) {
+            pane.markAsShared();
+        }
+
+        if (this.indexes == null) {
+            return;
+        }
+
+        for (final PaneIndex index : this.indexes) {
+            index.add(pane);
+        }
+    }
+
+    /**
+     * Reports that the specified child pane was removed from this pane, so it's removed from every index this pane is
+     * part of. This must be called by subclasses whenever they remove a child pane.
+     *
+     * @param pane the child pane that was removed
+     * @see PaneIndex
+     * @since 3.2.0
+     */
+    protected void paneRemoved(final @NonNull Pane pane) {
+        if (this.indexes == null) {
+            return;
+        }
+
+        for (final PaneIndex index : this.indexes) {
+            index.remove(pane);
+        }
+    }
+
+    /**
+     * Attaches the specified index to this pane, so changes to this pane are reported to it
+     *
+     * @param index the index
+     * @since 3.2.0
+     */
+    void attach(final @NonNull PaneIndex index) {
+        if (this.indexes == null) {
+            this.indexes = Collections.newSetFromMap(new WeakHashMap<>());
+        }
+
+        this.indexes.add(index);
+    }
+
+    /**
+     * Detaches the specified index from this pane, so changes to this pane are no longer reported to it
+     *
+     * @param index the index
+     * @since 3.2.0
+     */
+    void detach(final @NonNull PaneIndex index) {
+        if (this.indexes != null) {
+            this.indexes.remove(index);
+        }
+    }
+
     /**
      * Gets the slot of the position of this pane
      *
@@ -359,6 +606,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setSlot(final @NonNull Slot slot) {
+        checkNotShared();
+
         this.slot = slot;
 
         //the length should be the length of the parent container, but we don't have that, so just use one
@@ -387,6 +636,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setX(final int x) {
+        checkNotShared();
+
         this.x = x;
 
         this.slot = Slot.fromXY(x, getY());
@@ -413,6 +664,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setY(final int y) {
+        checkNotShared();
+
         this.y = y;
 
         this.slot = Slot.fromXY(getX(), y);
@@ -449,6 +702,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setVisible(final boolean visible) {
+        checkNotShared();
+
         this.visible = visible;
     }
 
@@ -487,6 +742,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setPriority(final @NonNull Priority priority) {
+        checkNotShared();
+
         this.priority = priority;
     }
 
@@ -526,6 +783,8 @@ public abstract class Pane {
      * @since 3.0.0
      */
     public void setOnClick(final @Nullable Consumer<InventoryClickEvent> onClick) {
+        checkNotShared();
+
         this.onClick = onClick;
     }
 
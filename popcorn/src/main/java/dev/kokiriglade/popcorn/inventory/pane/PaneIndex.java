@@ -0,0 +1,265 @@
+package dev.kokiriglade.popcorn.inventory.pane;
+
+import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * An index of panes and items by their {@link UUID}. The index contains the panes added to it, their child panes and
+ * all items inside those panes. Panes report items and child panes that are added to or removed from them to every
+ * index they are part of, so the index stays up-to-date without ever traversing the panes again.
+ * <p>
+ * The same pane or item may be reachable multiple times, e.g. when an item is added to two panes. Such panes and items
+ * are only removed from the index once they have been removed as often as they were added.
+ * </p>
+ *
+ * @since 3.2.0
+ */
+public final class PaneIndex {
+
+    /**
+     * The indexed items, keyed by their unique id
+     */
+    private final @NonNull Map<UUID, Entry<GuiItem>> items = new HashMap<>();
+
+    /**
+     * The indexed panes, keyed by their unique id
+     */
+    private final @NonNull Map<UUID, Entry<Pane>> panes = new HashMap<>();
+
+    /**
+     * Adds the specified pane, its child panes and all items inside them to this index. Any changes to these panes are
+     * reflected in this index from now on.
+     *
+     * @param pane the pane to add
+     * @since 3.2.0
+     */
+    public void add(final @NonNull Pane pane) {
+        addPane(pane);
+
+        //the child panes are added directly, since the items of a pane already include the items of its child panes
+        for (final Pane child : pane.getPanes()) {
+            addPane(child);
+        }
+
+        for (final GuiItem item : pane.getItems()) {
+            addItem(item);
+        }
+    }
+
+    /**
+     * Removes the specified pane, its child panes and all items inside them from this index. Changes to these panes
+     * are no longer reflected in this index.
+     *
+     * @param pane the pane to remove
+     * @since 3.2.0
+     */
+    public void remove(final @NonNull Pane pane) {
+        removePane(pane);
+
+        for (final Pane child : pane.getPanes()) {
+            removePane(child);
+        }
+
+        for (final GuiItem item : pane.getItems()) {
+            removeItem(item);
+        }
+    }
+
+    /**
+     * Gets the item with the specified unique id
+     *
+     * @param uuid the unique id of the item
+     * @return the item, or null if this index doesn't contain such an item
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable GuiItem getItem(final @NonNull UUID uuid) {
+        final Entry<GuiItem> entry = this.items.get(uuid);
+
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Gets the pane with the specified unique id
+     *
+     * @param uuid the unique id of the pane
+     * @return the pane, or null if this index doesn't contain such a pane
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public @Nullable Pane getPane(final @NonNull UUID uuid) {
+        final Entry<Pane> entry = this.panes.get(uuid);
+
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Performs the specified action for every item in this index. This doesn't allocate a snapshot of the items, so
+     * the action must not modify the panes in this index.
+     *
+     * @param action the action to perform
+     * @since 3.2.0
+     */
+    public void forEachItem(final @NonNull Consumer<? super GuiItem> action) {
+        this.items.forEach((uuid, entry) -> action.accept(entry.value));
+    }
+
+    /**
+     * Performs the specified action for every pane in this index. This doesn't allocate a snapshot of the panes, so
+     * the action must not modify the panes in this index.
+     *
+     * @param action the action to perform
+     * @since 3.2.0
+     */
+    public void forEachPane(final @NonNull Consumer<? super Pane> action) {
+        this.panes.forEach((uuid, entry) -> action.accept(entry.value));
+    }
+
+    /**
+     * Gets the amount of items in this index
+     *
+     * @return the amount of items
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getItemCount() {
+        return this.items.size();
+    }
+
+    /**
+     * Gets the amount of panes in this index
+     *
+     * @return the amount of panes
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int getPaneCount() {
+        return this.panes.size();
+    }
+
+    /**
+     * Adds the specified item to this index
+     *
+     * @param item the item to add
+     * @since 3.2.0
+     */
+    void addItem(final @NonNull GuiItem item) {
+        put(this.items, item.getUUID(), item);
+    }
+
+    /**
+     * Removes the specified item from this index
+     *
+     * @param item the item to remove
+     * @since 3.2.0
+     */
+    void removeItem(final @NonNull GuiItem item) {
+        take(this.items, item.getUUID(), item);
+    }
+
+    /**
+     * Adds only the specified pane to this index, not its child panes or items, and attaches this index to the pane
+     *
+     * @param pane the pane to add
+     * @since 3.2.0
+     */
+    private void addPane(final @NonNull Pane pane) {
+        put(this.panes, pane.getUUID(), pane);
+
+        pane.attach(this);
+    }
+
+    /**
+     * Removes only the specified pane from this index, not its child panes or items, and detaches this index from the
+     * pane once the pane is no longer part of this index
+     *
+     * @param pane the pane to remove
+     * @since 3.2.0
+     */
+    private void removePane(final @NonNull Pane pane) {
+        if (take(this.panes, pane.getUUID(), pane)) {
+            pane.detach(this);
+        }
+    }
+
+    /**
+     * Adds the specified value to the map, incrementing its count if it's already present
+     *
+     * @param map   the map to add the value to
+     * @param uuid  the unique id of the value
+     * @param value the value
+     * @param <T>   the type of the value
+     * @since 3.2.0
+     */
+    private static <T> void put(final @NonNull Map<UUID, Entry<T>> map, final @NonNull UUID uuid,
+                                final @NonNull T value) {
+        final Entry<T> entry = map.get(uuid);
+
+        if (entry != null && entry.value == value) {
+            entry.count++;
+        } else {
+            map.put(uuid, new Entry<>(value));
+        }
+    }
+
+    /**
+     * Decrements the count of the specified value in the map, removing it once its count reaches zero
+     *
+     * @param map   the map to remove the value from
+     * @param uuid  the unique id of the value
+     * @param value the value
+     * @param <T>   the type of the value
+     * @return true if the value was removed from the map, false otherwise
+     * @since 3.2.0
+     */
+    private static <T> boolean take(final @NonNull Map<UUID, Entry<T>> map, final @NonNull UUID uuid,
+                                    final @NonNull T value) {
+        final Entry<T> entry = map.get(uuid);
+
+        if (entry == null || entry.value != value || --entry.count > 0) {
+            return false;
+        }
+
+        map.remove(uuid);
+
+        return true;
+    }
+
+    /**
+     * An indexed value together with the amount of times it was added
+     *
+     * @param <T> the type of the value
+     * @since 3.2.0
+     */
+    private static final class Entry<T> {
+
+        /**
+         * The indexed value
+         */
+        private final @NonNull T value;
+
+        /**
+         * The amount of times the value was added
+         */
+        private int count = 1;
+
+        /**
+         * Creates a new entry
+         *
+         * @param value the indexed value
+         * @since 3.2.0
+         */
+        private Entry(final @NonNull T value) {
+            this.value = value;
+        }
+
+    }
+
+}
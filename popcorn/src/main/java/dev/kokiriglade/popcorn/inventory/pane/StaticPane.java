@@ -13,11 +13,11 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.jetbrains.annotations.Contract;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -25,8 +25,12 @@ import java.util.function.Consumer;
  * <p>
  * This pane allows you to specify the positions of the items either in the form of an x and y coordinate pair or as an
  * index, in which case the indexing starts from the top left and continues to the right and bottom, with the horizontal
- * axis taking priority. There are nuances at play with regard to mixing these two types of positioning systems within
- * the same pane. It's recommended to only use one of these systems per pane and to not mix them.
+ * axis taking priority. Both positioning systems refer to the same positions, so an item added at index {@code 10} in a
+ * pane with a length of nine replaces an item added at {@code (1, 1)} and vice versa.
+ * </p>
+ * <p>
+ * Items are stored in an array covering the pane, so every position in the pane holds at most one item and positions
+ * outside the pane can't hold any items.
  * </p>
  * @since 3.0.0
  */
@@ -34,10 +38,14 @@ import java.util.function.Consumer;
 public class StaticPane extends Pane implements Flippable, Rotatable {
 
     /**
-     * A map of locations inside this pane and their item. The locations are stored in a way where the x coordinate is
-     * the key and the y coordinate is the value.
+     * The items of this pane, indexed by {@code y * length + x}
      */
-    private final @NonNull Map<Slot, GuiItem> items;
+    private @Nullable GuiItem @NonNull [] items;
+
+    /**
+     * The slots the items of this pane were added with, indexed the same way as the items
+     */
+    private @Nullable Slot @NonNull [] slots;
 
     /**
      * The clockwise rotation of this pane in degrees
@@ -61,7 +69,8 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
     public StaticPane(final @NonNull Slot slot, final int length, final int height, final @NonNull Priority priority) {
         super(slot, length, height, priority);
 
-        this.items = new HashMap<>(length * height);
+        this.items = new GuiItem[length * height];
+        this.slots = new Slot[length * height];
     }
 
     /**
@@ -114,30 +123,25 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
         this(0, 0, length, height);
     }
 
-    /**
-     * {@inheritDoc}
-     * <p>
-     * If there are multiple items in the same position when displaying the items, either one of those items may be
-     * shown. In particular, there is no guarantee that a specific item will be shown.
-     *
-     * @param inventoryComponent {@inheritDoc}
-     * @param paneOffsetX        {@inheritDoc}
-     * @param paneOffsetY        {@inheritDoc}
-     * @param maxLength          {@inheritDoc}
-     * @param maxHeight          {@inheritDoc}
-     * @since 3.0.0
-     */
     @Override
     public void display(final @NonNull InventoryComponent inventoryComponent, final int paneOffsetX, final int paneOffsetY, final int maxLength,
                         final int maxHeight) {
         final int length = Math.min(this.length, maxLength);
         final int height = Math.min(this.height, maxHeight);
 
-        items.entrySet().stream().filter(entry -> entry.getValue().isVisible()).forEach(entry -> {
-            final Slot location = entry.getKey();
+        final Slot slot = getSlot();
+        final int offsetX = slot.getX(maxLength) + paneOffsetX;
+        final int offsetY = slot.getY(maxLength) + paneOffsetY;
+
+        for (int index = 0; index < this.items.length; index++) {
+            final GuiItem item = this.items[index];
+
+            if (item == null || !item.isVisible()) {
+                continue;
+            }
 
-            int x = location.getX(getLength());
-            int y = location.getY(getLength());
+            int x = index % this.length;
+            int y = index / this.length;
 
             if (flipHorizontally) {
                 x = length - x - 1;
@@ -147,33 +151,25 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
                 y = height - y - 1;
             }
 
-            final Map.Entry<Integer, Integer> coordinates = GeometryUtil.processClockwiseRotation(x, y, length, height,
-                rotation);
+            final int rotatedX = GeometryUtil.rotateClockwiseX(x, y, length, height, rotation);
+            final int rotatedY = GeometryUtil.rotateClockwiseY(x, y, length, height, rotation);
 
-            x = coordinates.getKey();
-            y = coordinates.getValue();
-
-            if (x < 0 || x >= length || y < 0 || y >= height) {
-                return;
+            if (rotatedX < 0 || rotatedX >= length || rotatedY < 0 || rotatedY >= height) {
+                continue;
             }
 
-            final GuiItem item = entry.getValue();
-
-            final Slot slot = getSlot();
-            final int finalRow = slot.getY(maxLength) + y + paneOffsetY;
-            final int finalColumn = slot.getX(maxLength) + x + paneOffsetX;
-
-            inventoryComponent.setItem(item, finalColumn, finalRow);
-        });
+            inventoryComponent.setItem(item, offsetX + rotatedX, offsetY + rotatedY);
+        }
     }
 
     /**
-     * Adds a gui item at the specific spot in the pane. If there is another item specified in terms of x and y
-     * coordinates that are equal to the coordinates of this item, the old item will be overwritten by this item.
+     * Adds a gui item at the specific spot in the pane. If there is another item at this position, the old item will be
+     * overwritten by this item.
      *
      * @param item the item to set
      * @param x    the x coordinate of the position of the item
      * @param y    the y coordinate of the position of the item
+     * @throws IllegalArgumentException if the position is outside this pane
      * @since 3.0.0
      */
     public void addItem(final @NonNull GuiItem item, final int x, final int y) {
@@ -181,18 +177,33 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
     }
 
     /**
-     * Adds a gui item at the specific spot in the pane. If the slot is specified in terms of an x and y coordinate pair
-     * and this pane contains another item whose position is specified as such and these positions are equal, the old
-     * item will be overwritten by this item. If the slot is specified in terms of an index and this pane contains
-     * another item whose position is specified as such and these positions are equal, the old item will be overwritten
-     * by this item.
+     * Adds a gui item at the specific spot in the pane. If there is another item at this position, regardless of how
+     * its slot was specified, the old item will be overwritten by this item.
      *
      * @param item the item to set
      * @param slot the position of the item
+     * @throws IllegalArgumentException if the position is outside this pane
      * @since 3.0.0
      */
     public void addItem(final @NonNull GuiItem item, final @NonNull Slot slot) {
-        this.items.put(slot, item);
+        checkNotShared();
+
+        final int index = getIndex(slot);
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Slot is outside the pane");
+        }
+
+        final GuiItem previous = this.items[index];
+
+        this.items[index] = item;
+        this.slots[index] = slot;
+
+        if (previous != null) {
+            itemRemoved(previous);
+        }
+
+        itemAdded(item);
     }
 
     /**
@@ -202,30 +213,78 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
      * @since 3.0.0
      */
     public void removeItem(final @NonNull GuiItem item) {
-        items.values().removeIf(guiItem -> guiItem.equals(item));
+        checkNotShared();
+
+        for (int index = 0; index < this.items.length; index++) {
+            final GuiItem guiItem = this.items[index];
+
+            if (item.equals(guiItem)) {
+                this.items[index] = null;
+                this.slots[index] = null;
+
+                itemRemoved(guiItem);
+            }
+        }
     }
 
     /**
-     * Removes the specified item from the pane. This will only remove items whose slot was specified in terms of an x
-     * and y coordinate pair which matches the coordinate specified.
+     * Removes the item at the specified position from the pane.
      *
      * @param x the x coordinate of the item to remove
      * @param y the y coordinate of the item to remove
      * @since 3.0.0
      */
     public void removeItem(final int x, final int y) {
-        this.items.remove(Slot.fromXY(x, y));
+        removeItem(Slot.fromXY(x, y));
     }
 
     /**
-     * Removes the specified item from the pane. This will only remove items whose slot was specified in the same way as
-     * the original slot and whose slot positions match.
+     * Removes the item at the position of the specified slot from the pane, regardless of how the slot of that item was
+     * specified.
      *
      * @param slot the slot of the item to remove
      * @since 3.0.0
      */
     public void removeItem(final @NonNull Slot slot) {
-        this.items.remove(slot);
+        checkNotShared();
+
+        final int index = getIndex(slot);
+
+        if (index == -1) {
+            return;
+        }
+
+        final GuiItem item = this.items[index];
+
+        this.items[index] = null;
+        this.slots[index] = null;
+
+        if (item != null) {
+            itemRemoved(item);
+        }
+    }
+
+    /**
+     * Gets the index in the item array of the position of the specified slot.
+     *
+     * @param slot the slot
+     * @return the index, or -1 if the position is outside this pane
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private int getIndex(final @NonNull Slot slot) {
+        if (this.length <= 0) {
+            return -1;
+        }
+
+        final int x = slot.getX(this.length);
+        final int y = slot.getY(this.length);
+
+        if (x < 0 || x >= this.length || y < 0 || y >= this.height) {
+            return -1;
+        }
+
+        return y * this.length + x;
     }
 
     @Override
@@ -254,13 +313,7 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
 
         callOnClick(event);
 
-        final ItemStack itemStack = event.getCurrentItem();
-
-        if (itemStack == null) {
-            return false;
-        }
-
-        final GuiItem clickedItem = findMatchingItem(items.values(), itemStack);
+        final GuiItem clickedItem = findClickedItem(inventoryComponent, slot, event.getCurrentItem());
 
         if (clickedItem == null) {
             return false;
@@ -276,8 +329,17 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
     public @NonNull StaticPane copy() {
         final StaticPane staticPane = new StaticPane(getSlot(), length, height, getPriority());
 
-        for (final Map.Entry<Slot, GuiItem> entry : items.entrySet()) {
-            staticPane.addItem(entry.getValue().copy(), entry.getKey());
+        for (int index = 0; index < items.length; index++) {
+            final GuiItem item = items[index];
+
+            if (item != null) {
+                final GuiItem copy = item.copy();
+
+                staticPane.items[index] = copy;
+                staticPane.slots[index] = slots[index];
+
+                staticPane.itemAdded(copy);
+            }
         }
 
         staticPane.setVisible(isVisible());
@@ -303,23 +365,16 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
      */
     public void fillWith(final @NonNull ItemStack itemStack, final @Nullable Consumer<InventoryClickEvent> action,
                          final @NonNull Plugin plugin) {
-        //The non-empty spots
-        final Set<Slot> locations = this.items.keySet();
-
-        for (int y = 0; y < this.getHeight(); y++) {
-            for (int x = 0; x < this.getLength(); x++) {
-                boolean found = false;
-
-                for (final Slot location : locations) {
-                    if (location.getX(getLength()) == x && location.getY(getLength()) == y) {
-                        found = true;
-                        break;
-                    }
-                }
-
-                if (!found) {
-                    this.addItem(new GuiItem(itemStack, action, plugin), x, y);
-                }
+        checkNotShared();
+
+        for (int index = 0; index < this.items.length; index++) {
+            if (this.items[index] == null) {
+                final GuiItem item = new GuiItem(itemStack, action, plugin);
+
+                this.items[index] = item;
+                this.slots[index] = Slot.fromXY(index % this.length, index / this.length);
+
+                itemAdded(item);
             }
         }
     }
@@ -348,12 +403,99 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
 
     @Override
     public @NonNull Collection<GuiItem> getItems() {
-        return items.values();
+        final List<GuiItem> items = new ArrayList<>();
+
+        for (final GuiItem item : this.items) {
+            if (item != null) {
+                items.add(item);
+            }
+        }
+
+        return items;
     }
 
     @Override
     public void clear() {
-        items.clear();
+        checkNotShared();
+
+        for (final GuiItem item : items) {
+            if (item != null) {
+                itemRemoved(item);
+            }
+        }
+
+        Arrays.fill(items, null);
+        Arrays.fill(slots, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Items whose position falls outside the pane after resizing it are removed.
+     * </p>
+     *
+     * @param length {@inheritDoc}
+     * @since 3.0.0
+     */
+    @Override
+    public void setLength(final int length) {
+        resize(length, this.height);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Items whose position falls outside the pane after resizing it are removed.
+     * </p>
+     *
+     * @param height {@inheritDoc}
+     * @since 3.0.0
+     */
+    @Override
+    public void setHeight(final int height) {
+        resize(this.length, height);
+    }
+
+    /**
+     * Resizes this pane, placing the items at the positions of their slots in the new dimensions.
+     *
+     * @param length the new length
+     * @param height the new height
+     * @since 3.2.0
+     */
+    private void resize(final int length, final int height) {
+        final GuiItem[] oldItems = this.items;
+        final Slot[] oldSlots = this.slots;
+
+        super.setLength(length);
+        super.setHeight(height);
+
+        this.items = new GuiItem[length * height];
+        this.slots = new Slot[length * height];
+
+        for (int index = 0; index < oldItems.length; index++) {
+            final GuiItem item = oldItems[index];
+
+            if (item == null) {
+                continue;
+            }
+
+            final int newIndex = getIndex(oldSlots[index]);
+
+            if (newIndex == -1) {
+                itemRemoved(item);
+                continue;
+            }
+
+            final GuiItem previous = this.items[newIndex];
+
+            this.items[newIndex] = item;
+            this.slots[newIndex] = oldSlots[index];
+
+            if (previous != null) {
+                itemRemoved(previous);
+            }
+        }
     }
 
     @Contract(pure = true)
@@ -364,11 +506,15 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
 
     @Override
     public void flipHorizontally(final boolean flipHorizontally) {
+        checkNotShared();
+
         this.flipHorizontally = flipHorizontally;
     }
 
     @Override
     public void flipVertically(final boolean flipVertically) {
+        checkNotShared();
+
         this.flipVertically = flipVertically;
     }
 
@@ -380,6 +526,8 @@ public class StaticPane extends Pane implements Flippable, Rotatable {
 
     @Override
     public void setRotation(final int rotation) {
+        checkNotShared();
+
         if (length != height) {
             throw new UnsupportedOperationException("length and height are different");
         }
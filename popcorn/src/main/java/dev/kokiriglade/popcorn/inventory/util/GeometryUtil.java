@@ -27,22 +27,62 @@ public class GeometryUtil {
     @Contract(pure = true)
     public static Map.@NonNull Entry<Integer, Integer> processClockwiseRotation(final int x, final int y, final int length, final int height,
                                                                                 final int rotation) {
-        int newX = x, newY = y;
+        return new AbstractMap.SimpleEntry<>(
+            rotateClockwiseX(x, y, length, height, rotation),
+            rotateClockwiseY(x, y, length, height, rotation)
+        );
+    }
 
+    /**
+     * Calculates the x coordinate of a clockwise rotation across a two-dimensional grid. Unlike
+     * {@link #processClockwiseRotation(int, int, int, int, int)}, this doesn't allocate.
+     *
+     * @param x        the standard x coordinate
+     * @param y        the standard y coordinate
+     * @param length   the length of the grid
+     * @param height   the height of the grid
+     * @param rotation the rotation in degrees
+     * @return the new x coordinate
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int rotateClockwiseX(final int x, final int y, final int length, final int height, final int rotation) {
         if (rotation == 90) {
-            newX = height - 1 - y;
-            //noinspection SuspiciousNameCombination
-            newY = x;
+            return height - 1 - y;
         } else if (rotation == 180) {
-            newX = length - 1 - x;
-            newY = height - 1 - y;
+            return length - 1 - x;
         } else if (rotation == 270) {
             //noinspection SuspiciousNameCombination
-            newX = y;
-            newY = length - 1 - x;
+            return y;
+        }
+
+        return x;
+    }
+
+    /**
+     * Calculates the y coordinate of a clockwise rotation across a two-dimensional grid. Unlike
+     * {@link #processClockwiseRotation(int, int, int, int, int)}, this doesn't allocate.
+     *
+     * @param x        the standard x coordinate
+     * @param y        the standard y coordinate
+     * @param length   the length of the grid
+     * @param height   the height of the grid
+     * @param rotation the rotation in degrees
+     * @return the new y coordinate
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public static int rotateClockwiseY(final int x, final int y, final int length, final int height, final int rotation) {
+        if (rotation == 90) {
+            //noinspection SuspiciousNameCombination
+            return x;
+        } else if (rotation == 180) {
+            return height - 1 - y;
+        } else if (rotation == 270) {
+            return length - 1 - x;
         }
 
-        return new AbstractMap.SimpleEntry<>(newX, newY);
+        return y;
     }
 
     /**
@@ -0,0 +1,506 @@
+package dev.kokiriglade.popcorn.inventory.util;
+
+import dev.kokiriglade.popcorn.inventory.gui.GuiItem;
+import dev.kokiriglade.popcorn.inventory.gui.type.AnvilGui;
+import dev.kokiriglade.popcorn.inventory.pane.PaginatedPane;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.Contract;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A search index over a catalogue of entries, for search-as-you-type menus. Every entry has a key, and an entry matches
+ * a query if its key contains the query, ignoring case. Results are returned in the order entries were added.
+ * <p>
+ * The index keeps a posting list of entries for every sequence of up to three characters that occurs in a key, so a
+ * query only has to look at entries containing all the character sequences of the query instead of scanning the whole
+ * catalogue. Entries can be added and removed at any time without rebuilding the index. The result of the previous
+ * query is remembered: when the query is narrowed, e.g. because another character was typed, only the previous result
+ * is filtered, provided it's smaller than the posting lists of the narrowed query.
+ * </p>
+ * <p>
+ * This class is not thread-safe and should only be used from the main thread.
+ * </p>
+ *
+ * @param <T> the type of the entries
+ * @since 3.2.0
+ */
+@SuppressWarnings("unused")
+public final class SearchIndex<T> {
+
+    /**
+     * The maximum length of the character sequences that are indexed
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * The minimum amount of ids that have to be free before the index is compacted
+     */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    /**
+     * The function deriving the key of an entry
+     */
+    private final @NonNull Function<? super T, ? extends @NonNull String> keyFunction;
+
+    /**
+     * The id of every entry
+     */
+    private final @NonNull Map<T, Integer> ids = new HashMap<>();
+
+    /**
+     * The posting lists, keyed by the packed character sequence
+     */
+    private final @NonNull Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * The entries, indexed by their id, or null for removed entries
+     */
+    private @Nullable Object @NonNull [] entries = new Object[16];
+
+    /**
+     * The normalized keys of the entries, indexed by their id, or null for removed entries
+     */
+    private @Nullable String @NonNull [] keys = new String[16];
+
+    /**
+     * The id handed out to the next entry
+     */
+    private int nextId;
+
+    /**
+     * The normalized query of the previous search, or null if the previous result was invalidated
+     */
+    private @Nullable String lastQuery;
+
+    /**
+     * The ids of the entries matching the previous query, in ascending order
+     */
+    private int @NonNull [] lastResult = new int[0];
+
+    /**
+     * Creates a new search index
+     *
+     * @param keyFunction the function deriving the key of an entry
+     * @since 3.2.0
+     */
+    public SearchIndex(final @NonNull Function<? super T, ? extends @NonNull String> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Adds the specified entry to this index. If the entry is already part of this index, its key is derived again
+     * and the entry is moved to the end of the results.
+     *
+     * @param entry the entry to add
+     * @since 3.2.0
+     */
+    public void add(final @NonNull T entry) {
+        remove(entry);
+
+        final String key = normalize(this.keyFunction.apply(entry));
+        final int id = this.nextId++;
+
+        if (id == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, id * 2);
+            this.keys = Arrays.copyOf(this.keys, id * 2);
+        }
+
+        this.entries[id] = entry;
+        this.keys[id] = key;
+        this.ids.put(entry, id);
+
+        for (int start = 0; start < key.length(); start++) {
+            for (int length = 1; length <= GRAM_LENGTH && start + length <= key.length(); length++) {
+                this.postings.computeIfAbsent(pack(key, start, length), gram -> new Postings()).add(id);
+            }
+        }
+
+        this.lastQuery = null;
+    }
+
+    /**
+     * Adds all specified entries to this index
+     *
+     * @param entries the entries to add
+     * @since 3.2.0
+     */
+    public void addAll(final @NonNull Collection<? extends @NonNull T> entries) {
+        for (final T entry : entries) {
+            add(entry);
+        }
+    }
+
+    /**
+     * Removes the specified entry from this index
+     *
+     * @param entry the entry to remove
+     * @return true if the entry was part of this index, false otherwise
+     * @since 3.2.0
+     */
+    public boolean remove(final @NonNull T entry) {
+        final Integer id = this.ids.remove(entry);
+
+        if (id == null) {
+            return false;
+        }
+
+        final String key = this.keys[id];
+
+        for (int start = 0; start < key.length(); start++) {
+            for (int length = 1; length <= GRAM_LENGTH && start + length <= key.length(); length++) {
+                final long gram = pack(key, start, length);
+                final Postings postings = this.postings.get(gram);
+
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    this.postings.remove(gram);
+                }
+            }
+        }
+
+        this.entries[id] = null;
+        this.keys[id] = null;
+        this.lastQuery = null;
+
+        //reassign the ids once most of them belong to removed entries, so the arrays don't keep growing
+        final int free = this.nextId - this.ids.size();
+
+        if (free >= COMPACTION_THRESHOLD && free > this.ids.size()) {
+            compact();
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all entries from this index
+     *
+     * @since 3.2.0
+     */
+    public void clear() {
+        this.ids.clear();
+        this.postings.clear();
+        this.entries = new Object[16];
+        this.keys = new String[16];
+        this.nextId = 0;
+        this.lastQuery = null;
+    }
+
+    /**
+     * Gets the amount of entries in this index
+     *
+     * @return the amount of entries
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    public int size() {
+        return this.ids.size();
+    }
+
+    /**
+     * Gets all entries whose key contains the specified query, ignoring case. An empty query matches all entries.
+     *
+     * @param query the query
+     * @return the matching entries, in the order they were added
+     * @since 3.2.0
+     */
+    @SuppressWarnings("unchecked")
+    public @NonNull List<@NonNull T> search(final @NonNull String query) {
+        final int[] result = match(normalize(query));
+        final List<T> matches = new ArrayList<>(result.length);
+
+        for (final int id : result) {
+            matches.add((T) this.entries[id]);
+        }
+
+        return matches;
+    }
+
+    /**
+     * Populates the specified pane with the entries matching the specified query. Only the items of the page that is
+     * displayed are created, see {@link PaginatedPane#populateWithDataSource(List, Function)}.
+     *
+     * @param pane   the pane to populate
+     * @param query  the query
+     * @param mapper the function creating the item for an entry
+     * @since 3.2.0
+     */
+    public void populate(final @NonNull PaginatedPane pane, final @NonNull String query,
+                         final @NonNull Function<? super T, ? extends @NonNull GuiItem> mapper) {
+        pane.populateWithDataSource(search(query), mapper);
+    }
+
+    /**
+     * Uses the rename text of the specified anvil as the query for the specified pane, which has to be part of the
+     * player inventory component of the anvil. The pane is populated with the results for the current rename text
+     * immediately, and again whenever the debounced name input of the anvil is delivered, after which the player
+     * inventory component is updated in place, see {@link AnvilGui#updatePlayerInventory()}. The anvil itself is not
+     * opened again, so the text the viewers are typing is kept. This replaces the debounced name input handler of the
+     * anvil, see {@link AnvilGui#setOnDebouncedNameInput(Function)}.
+     *
+     * @param gui    the anvil whose rename text is the query
+     * @param pane   the pane to populate, in the player inventory component of the anvil
+     * @param mapper the function creating the item for an entry
+     * @since 3.2.0
+     */
+    public void bind(final @NonNull AnvilGui gui, final @NonNull PaginatedPane pane,
+                     final @NonNull Function<? super T, ? extends @NonNull GuiItem> mapper) {
+        populate(pane, gui.getRenameText(), mapper);
+
+        gui.setOnDebouncedNameInput(input -> {
+            populate(pane, input, mapper);
+            gui.updatePlayerInventory();
+
+            return null;
+        });
+    }
+
+    /**
+     * Gets the ids of all entries whose key contains the specified query, reusing the result of the previous query
+     * if possible
+     *
+     * @param query the normalized query
+     * @return the ids of the matching entries, in ascending order
+     * @since 3.2.0
+     */
+    private int @NonNull [] match(final @NonNull String query) {
+        final String lastQuery = this.lastQuery;
+        final int[] result;
+
+        if (lastQuery != null && query.equals(lastQuery)) {
+            return this.lastResult;
+        } else if (query.isEmpty()) {
+            result = new int[this.ids.size()];
+
+            int size = 0;
+
+            for (int id = 0; id < this.nextId; id++) {
+                if (this.keys[id] != null) {
+                    result[size++] = id;
+                }
+            }
+        } else {
+            final Postings[] lists = getPostings(query);
+
+            if (lists == null) {
+                result = new int[0];
+            } else if (lastQuery != null && !lastQuery.isEmpty() && query.contains(lastQuery)
+                && this.lastResult.length < lists[0].size) {
+                //every key containing the narrowed query also contains the previous one, which matched fewer entries
+                result = filter(this.lastResult, this.lastResult.length, query);
+            } else {
+                result = lookup(query, lists);
+            }
+        }
+
+        this.lastQuery = query;
+        this.lastResult = result;
+
+        return result;
+    }
+
+    /**
+     * Gets the posting lists of the character sequences in the specified query, shortest first
+     *
+     * @param query the normalized, non-empty query
+     * @return the posting lists, or null if a character sequence of the query doesn't occur in any key
+     * @since 3.2.0
+     */
+    private @NonNull Postings @Nullable [] getPostings(final @NonNull String query) {
+        final int length = Math.min(GRAM_LENGTH, query.length());
+        final int count = query.length() - length + 1;
+        final Postings[] lists = new Postings[count];
+
+        for (int start = 0; start < count; start++) {
+            final Postings postings = this.postings.get(pack(query, start, length));
+
+            if (postings == null) {
+                return null;
+            }
+
+            lists[start] = postings;
+        }
+
+        //start with the shortest list, so every following step only has to check few candidates
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+
+        return lists;
+    }
+
+    /**
+     * Gets the ids of all entries whose key contains the specified query by intersecting the posting lists of the
+     * character sequences in the query
+     *
+     * @param query the normalized, non-empty query
+     * @param lists the posting lists of the character sequences in the query, shortest first
+     * @return the ids of the matching entries, in ascending order
+     * @see #getPostings(String)
+     * @since 3.2.0
+     */
+    private int @NonNull [] lookup(final @NonNull String query, final @NonNull Postings @NonNull [] lists) {
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = candidates.length;
+
+        for (int index = 1; index < lists.length && size > 0; index++) {
+            final Postings postings = lists[index];
+            int retained = 0;
+
+            for (int candidate = 0; candidate < size; candidate++) {
+                if (Arrays.binarySearch(postings.ids, 0, postings.size, candidates[candidate]) >= 0) {
+                    candidates[retained++] = candidates[candidate];
+                }
+            }
+
+            size = retained;
+        }
+
+        //queries up to the sequence length are matched exactly, longer ones may contain the sequences out of order
+        if (query.length() <= GRAM_LENGTH) {
+            return size == candidates.length ? candidates : Arrays.copyOf(candidates, size);
+        }
+
+        return filter(candidates, size, query);
+    }
+
+    /**
+     * Gets the ids of the specified entries whose key contains the specified query
+     *
+     * @param ids   the ids of the entries to filter, in ascending order
+     * @param size  the amount of ids to consider
+     * @param query the normalized query
+     * @return the ids of the matching entries, in ascending order
+     * @since 3.2.0
+     */
+    private int @NonNull [] filter(final int @NonNull [] ids, final int size, final @NonNull String query) {
+        final int[] result = new int[size];
+        int retained = 0;
+
+        for (int index = 0; index < size; index++) {
+            final String key = this.keys[ids[index]];
+
+            if (key != null && key.contains(query)) {
+                result[retained++] = ids[index];
+            }
+        }
+
+        return retained == result.length ? result : Arrays.copyOf(result, retained);
+    }
+
+    /**
+     * Adds all entries to this index again, so the ids of the entries are contiguous
+     *
+     * @since 3.2.0
+     */
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        final Object[] entries = this.entries;
+        final int end = this.nextId;
+
+        clear();
+
+        for (int id = 0; id < end; id++) {
+            if (entries[id] != null) {
+                add((T) entries[id]);
+            }
+        }
+    }
+
+    /**
+     * Normalizes the specified key or query, so matching ignores case
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private static @NonNull String normalize(final @NonNull String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs the character sequence of the specified length at the specified position into a single number
+     *
+     * @param text   the text containing the sequence
+     * @param start  the index of the first character of the sequence
+     * @param length the length of the sequence, at most three
+     * @return the packed sequence
+     * @since 3.2.0
+     */
+    @Contract(pure = true)
+    private static long pack(final @NonNull String text, final int start, final int length) {
+        long gram = length;
+
+        for (int index = 0; index < GRAM_LENGTH; index++) {
+            gram = gram << 16 | (index < length ? text.charAt(start + index) : 0);
+        }
+
+        return gram;
+    }
+
+    /**
+     * The ids of the entries whose key contains a certain character sequence, in ascending order
+     *
+     * @since 3.2.0
+     */
+    private static final class Postings {
+
+        /**
+         * The ids, of which only the first {@link #size} are used
+         */
+        private int @NonNull [] ids = new int[4];
+
+        /**
+         * The amount of ids
+         */
+        private int size;
+
+        /**
+         * Adds the specified id, which must be larger than all ids added before. Adding the last id again does
+         * nothing, so a sequence occurring multiple times in a key is only recorded once.
+         *
+         * @param id the id to add
+         * @since 3.2.0
+         */
+        private void add(final int id) {
+            if (this.size > 0 && this.ids[this.size - 1] == id) {
+                return;
+            }
+
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+
+            this.ids[this.size++] = id;
+        }
+
+        /**
+         * Removes the specified id
+         *
+         * @param id the id to remove
+         * @return true if the id was removed, false if it wasn't present
+         * @since 3.2.0
+         */
+        private boolean remove(final int id) {
+            final int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+
+            if (index < 0) {
+                return false;
+            }
+
+            System.arraycopy(this.ids, index + 1, this.ids, index, this.size - index - 1);
+            this.size--;
+
+            return true;
+        }
+
+    }
+
+}